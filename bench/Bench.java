@@ -0,0 +1,195 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// microbenchmark runner: each benchmark is measured in fresh JVM forks (warmup, then timed
+// iterations), and per-iteration ns/op samples from all forks are summarised
+//
+//   java -cp bench/out src.Bench [--forks 3] [--warmup 5] [--iterations 10] [--time 200]
+//                                [--filter regex] [--json results.json]
+public final class Bench {
+    private static final long BATCH_NANOS = 100_000; // grow batches until one lasts this long
+
+    private int forks = 3, warmup = 5, iterations = 10;
+    private long timeMs = 200;
+    private Pattern filter = Pattern.compile(".*");
+    private Path json;
+
+    // one benchmark's summary (times in ns/op over all measured iterations of all forks)
+    static final class Result {
+        final String name;
+        final int forks, samples;
+        final double mean, error, min, p50, p90, p99, max;
+        Result(String name, int forks, double[] s) {
+            this.name = name;
+            this.forks = forks;
+            this.samples = s.length;
+            double[] sorted = s.clone();
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (double v : s) sum += v;
+            mean = sum / s.length;
+            double var = 0;
+            for (double v : s) var += (v - mean) * (v - mean);
+            double sd = s.length > 1 ? Math.sqrt(var / (s.length - 1)) : 0;
+            error = s.length > 1 ? studentT999(s.length - 1) * sd / Math.sqrt(s.length) : Double.NaN;
+            min = sorted[0];
+            p50 = percentile(sorted, 50);
+            p90 = percentile(sorted, 90);
+            p99 = percentile(sorted, 99);
+            max = sorted[sorted.length - 1];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Bench b = new Bench();
+        String child = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--forks":      b.forks = Integer.parseInt(args[++i]); break;
+                    case "--warmup":     b.warmup = Integer.parseInt(args[++i]); break;
+                    case "--iterations": b.iterations = Integer.parseInt(args[++i]); break;
+                    case "--time":       b.timeMs = Long.parseLong(args[++i]); break;
+                    case "--filter":     b.filter = Pattern.compile(args[++i]); break;
+                    case "--json":       b.json = Path.of(args[++i]); break;
+                    case "--child":      child = args[++i]; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (b.forks < 0 || b.warmup < 0 || b.iterations < 1 || b.timeMs < 1) {
+                throw new IllegalArgumentException("need --forks >= 0, --warmup >= 0, --iterations >= 1, --time >= 1");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Bad arguments: " + e.getMessage());
+            System.exit(2);
+        }
+        if (child != null) {
+            b.runChild(child);
+        } else {
+            b.runAll();
+        }
+    }
+
+    private void runAll() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (String name : Benchmarks.all().keySet()) {
+            if (!filter.matcher(name).find()) continue;
+            List<Double> samples = new ArrayList<>();
+            if (forks == 0) {
+                measureInProcess(name, samples);  // quick look only: shares JIT state with the harness
+            } else {
+                for (int f = 0; f < forks; f++) fork(name, samples);
+            }
+            double[] s = samples.stream().mapToDouble(Double::doubleValue).toArray();
+            Result r = new Result(name, Math.max(forks, 1), s);
+            results.add(r);
+            System.out.printf("%-28s %12.1f +- %-10.1f p50 %10.1f  p90 %10.1f  p99 %10.1f  ns/op%n",
+                r.name, r.mean, r.error, r.p50, r.p90, r.p99);
+        }
+        if (json != null) {
+            Files.writeString(json, toJson(results), StandardCharsets.UTF_8);
+            System.out.println("Wrote " + json);
+        }
+    }
+
+    // run one benchmark in a fresh JVM and collect its "sample" lines
+    private void fork(String name, List<Double> samples) throws IOException, InterruptedException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Bench.class.getName(),
+            "--child", name, "--warmup", String.valueOf(warmup), "--iterations", String.valueOf(iterations),
+            "--time", String.valueOf(timeMs));
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+        Process p = pb.start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith("sample ")) samples.add(Double.parseDouble(line.substring(7)));
+            }
+        }
+        int code = p.waitFor();
+        if (code != 0) throw new IOException("Fork for " + name + " exited with " + code);
+    }
+
+    // child JVM: measure one benchmark, report samples on the real stdout
+    private void runChild(String name) throws Exception {
+        List<Double> samples = new ArrayList<>();
+        measureInProcess(name, samples);
+        for (double s : samples) System.out.println("sample " + s);
+    }
+
+    private void measureInProcess(String name, List<Double> samples) throws Exception {
+        Benchmarks.Benchmark bm = Benchmarks.all().get(name);
+        if (bm == null) throw new IllegalArgumentException("No benchmark " + name);
+        Blackhole bh = new Blackhole();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // benchmarks may print (game session)
+        try {
+            for (int i = 0; i < warmup; i++) iteration(bm, bh);
+            for (int i = 0; i < iterations; i++) samples.add(iteration(bm, bh));
+        } finally {
+            System.setOut(out);
+        }
+        if (bh.fingerprint() == 42) System.err.print(""); // keep the sink reachable
+    }
+
+    // run for ~timeMs in growing batches (few clock reads for fast ops); returns ns/op
+    private double iteration(Benchmarks.Benchmark bm, Blackhole bh) throws Exception {
+        long start = System.nanoTime();
+        long end = start + timeMs * 1_000_000;
+        long ops = 0;
+        int batch = 1;
+        long now = start;
+        while (now < end) {
+            long batchStart = now;
+            for (int i = 0; i < batch; i++) bm.run(bh);
+            ops += batch;
+            now = System.nanoTime();
+            if (now - batchStart < BATCH_NANOS && batch < (1 << 20)) batch <<= 1;
+        }
+        return (double) (now - start) / ops;
+    }
+
+    // nearest-rank percentile of sorted samples
+    static double percentile(double[] sorted, double pct) {
+        int rank = (int) Math.ceil(pct / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    // two-sided 99.9% Student t quantile (table, rounded towards fewer degrees of freedom)
+    static double studentT999(int df) {
+        final int[] dfs = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 15, 20, 30, 60, 120};
+        final double[] t = {636.62, 31.60, 12.92, 8.61, 6.87, 5.96, 5.41, 5.04, 4.78, 4.59, 4.07, 3.85, 3.65, 3.46, 3.37};
+        if (df > 120) return 3.29; // normal limit
+        for (int i = dfs.length - 1; i > 0; i--) {
+            if (df >= dfs[i]) return t[i];
+        }
+        return t[0];
+    }
+
+    static String toJson(List<Result> results) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            sb.append(String.format(Locale.ROOT,
+                "  {\"benchmark\": \"%s\", \"unit\": \"ns/op\", \"forks\": %d, \"samples\": %d, \"mean\": %.3f, "
+                + "\"error\": %s, \"min\": %.3f, \"p50\": %.3f, \"p90\": %.3f, \"p99\": %.3f, \"max\": %.3f}",
+                r.name, r.forks, r.samples, r.mean, Double.isNaN(r.error) ? "null" : String.format(Locale.ROOT, "%.3f", r.error),
+                r.min, r.p50, r.p90, r.p99, r.max));
+            sb.append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        return sb.append("]\n").toString();
+    }
+}
@@ -0,0 +1,54 @@
+package src;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+// the measured operations; each call of run() is one operation
+final class Benchmarks {
+    interface Benchmark {
+        void run(Blackhole bh) throws Exception;
+    }
+
+    // Italian game after 4 moves: pieces on both wings, castling still available
+    private static final String MIDDLEGAME = "r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+
+    // a short game driven through the console loop, ending with quit
+    private static final String SESSION = String.join("\n",
+        "White", "Black", "hint", "pip e2", "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6",
+        "d2d3", "f8c5", "o-o", "d7d6", "q") + "\n";
+
+    private Benchmarks() {}
+
+    // name -> benchmark, in report order
+    static Map<String, Benchmark> all() {
+        Board mid = Fen.parse(MIDDLEGAME).board;
+        Position e1 = Position.fromAlgebraic("e1"), g1 = Position.fromAlgebraic("g1");
+        Position f3 = Position.fromAlgebraic("f3"), g5 = Position.fromAlgebraic("g5");
+        Position f6 = Position.fromAlgebraic("f6"), g8 = Position.fromAlgebraic("g8");
+        // knight moves that return to the start position, so 'move' can repeat indefinitely
+        Position[][] shuffle = {{f3, g1}, {f6, g8}, {g1, f3}, {g8, f6}};
+        Board cycling = mid.copy();
+        int[] step = {0};
+
+        Map<String, Benchmark> m = new LinkedHashMap<>();
+        m.put("board.standardSetup", bh -> bh.consume(Board.standardSetup()));
+        m.put("board.copy", bh -> bh.consume(mid.copy()));
+        m.put("board.isSquareAttacked", bh -> bh.consume(mid.isSquareAttacked(f3, Color.BLACK)));
+        m.put("board.isLegalMove", bh -> bh.consume(mid.isLegalMove(f3, g5, Color.WHITE)));
+        m.put("board.isLegalMove.castle", bh -> bh.consume(mid.isLegalMove(e1, g1, Color.WHITE)));
+        m.put("board.legalMovesFrom", bh -> bh.consume(mid.legalMovesFrom(f3, Color.WHITE)));
+        m.put("board.hasAnyLegalMove", bh -> bh.consume(mid.hasAnyLegalMove(Color.BLACK)));
+        m.put("board.move", bh -> {
+            Position[] mv = shuffle[step[0]];
+            bh.consume(cycling.move(mv[0], mv[1], (step[0] & 1) == 0 ? Color.WHITE : Color.BLACK));
+            step[0] = (step[0] + 1) & 3;
+        });
+        m.put("game.session", bh -> {
+            Game g = new Game(new Scanner(SESSION));
+            g.run();
+            bh.consume(g);
+        });
+        return m;
+    }
+}
@@ -0,0 +1,19 @@
+package src;
+
+// sink for benchmark results so the JIT cannot drop the work that produced them
+public final class Blackhole {
+    private volatile int guard;       // never equals any real value
+    private int ints;
+    private Object last;
+
+    public void consume(int v) { ints += v; if (ints == guard) ints++; }
+
+    public void consume(long v) { consume((int) (v ^ (v >>> 32))); }
+
+    public void consume(boolean v) { consume(v ? 1 : 0); }
+
+    public void consume(Object o) { if (o != null && guard == System.identityHashCode(o)) last = o; }
+
+    // folds everything seen, printed by the harness so the sink itself stays live
+    int fingerprint() { return ints ^ (last == null ? 0 : 1); }
+}
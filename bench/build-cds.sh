@@ -0,0 +1,22 @@
+#!/bin/sh
+# Build bench/out/chess.jar and a static application class-data-sharing archive for the one-shot
+# query mode. The archive holds the JDK and app classes a query loads, already parsed and verified,
+# so later runs map them instead of loading them from the jar:
+#   java -XX:SharedArchiveFile=bench/out/chess.jsa -cp bench/out/chess.jar src.Main --query legal "<fen>"
+# The archive is only valid for the same JDK build and the same jar; rebuild it after either changes.
+set -e
+cd "$(dirname "$0")/.."
+rm -rf bench/out/cds
+mkdir -p bench/out/cds
+javac -encoding UTF-8 -d bench/out/cds src/*.java
+jar --create --file bench/out/chess.jar -C bench/out/cds .
+rm -f bench/out/chess.jsa bench/out/*.classlist
+# one training run per query kind lists the classes it loads; the merged list is archived in one
+# dump, so classes that only one kind needs are covered too
+for kind in legal status; do
+    java -XX:DumpLoadedClassList=bench/out/$kind.classlist -cp bench/out/chess.jar src.Main --query $kind > /dev/null
+done
+grep -hv '^#' bench/out/legal.classlist bench/out/status.classlist | awk '!seen[$0]++' > bench/out/query.classlist
+java -Xshare:dump -XX:SharedClassListFile=bench/out/query.classlist -XX:SharedArchiveFile=bench/out/chess.jsa \
+    -cp bench/out/chess.jar > /dev/null
+echo "Wrote bench/out/chess.jar and bench/out/chess.jsa"
@@ -0,0 +1,9 @@
+#!/bin/sh
+# Build the engine and the benchmark harness with the local JDK, then run every benchmark.
+# Extra arguments go to the harness, e.g.
+#   bench/run.sh --filter board --forks 2 --json bench/results-$(date +%Y%m%d).json
+set -e
+cd "$(dirname "$0")/.."
+rm -rf bench/out
+javac -encoding UTF-8 -d bench/out src/*.java bench/*.java
+exec java -cp bench/out src.Bench "$@"
@@ -0,0 +1,34 @@
+#!/bin/sh
+# Time-to-first-answer of the one-shot query mode: wall time of N complete
+# `--query legal` runs, without and with the class-data-sharing archive.
+#   bench/startup.sh [runs]      (default 20)
+set -e
+cd "$(dirname "$0")/.."
+RUNS=${1:-20}
+FEN="r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4"
+bench/build-cds.sh > /dev/null
+
+measure() {
+    label=$1; shift
+    java "$@" -cp bench/out/chess.jar src.Main --query legal "$FEN" > /dev/null   # warm the file cache
+    start=$(date +%s%N)
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        java "$@" -cp bench/out/chess.jar src.Main --query legal "$FEN" > /dev/null
+        i=$((i + 1))
+    done
+    end=$(date +%s%N)
+    printf '%-28s %6d ms/query  (%d runs)\n' "$label" $(((end - start) / RUNS / 1000000)) "$RUNS"
+}
+
+# floor: a JVM that boots and exits without running any application code
+start=$(date +%s%N)
+i=0
+while [ $i -lt "$RUNS" ]; do java -version 2> /dev/null; i=$((i + 1)); done
+end=$(date +%s%N)
+printf '%-28s %6d ms/run    (%d runs)\n' "JVM boot only (java -version)" $(((end - start) / RUNS / 1000000)) "$RUNS"
+
+measure "default" -Xshare:auto
+measure "default, tiered C1 only" -XX:TieredStopAtLevel=1
+measure "app CDS" -XX:SharedArchiveFile=bench/out/chess.jsa
+measure "app CDS, tiered C1 only" -XX:SharedArchiveFile=bench/out/chess.jsa -XX:TieredStopAtLevel=1
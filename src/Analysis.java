@@ -0,0 +1,101 @@
+package src;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// open-ended multi-PV analysis of one position on a background thread; any front end can
+// listen to the per-iteration lines and stop it whenever the user moves on
+public final class Analysis {
+    private static final Search.Limits INFINITE = new Search.Limits(0, 0, 0);
+
+    private final Search search;
+    private final ExecutorService worker;
+    private final Future<List<Search.Info>> running;
+
+    private Analysis(Search search, Board board, Color turn, int lines, Search.MultiPvListener listener) {
+        this.search = search;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "analysis");
+            t.setDaemon(true);
+            return t;
+        });
+        BoardSnapshot at = board.snapshot(); // the caller may keep playing on its board
+        this.running = worker.submit(() -> search.searchMultiPv(at.thaw(), turn, lines, INFINITE, listener));
+        worker.shutdown();
+    }
+
+    // analyse 'turn' to move with the best 'lines' moves; the listener runs on the analysis thread
+    public static Analysis start(Search search, Board board, Color turn, int lines, Search.MultiPvListener listener) {
+        if (lines < 1) throw new IllegalArgumentException("lines must be >= 1");
+        return new Analysis(search, board, turn, lines, listener);
+    }
+
+    // stop searching and return the last completed iteration (empty if none finished)
+    public List<Search.Info> stop() {
+        while (true) {
+            // repeat the signal: the task may not have entered the search yet
+            search.stop();
+            try {
+                return running.get(5, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // not yet unwound
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return List.of();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Analysis failed", e.getCause());
+            }
+        }
+    }
+
+    // one text block per iteration: "depth 7  nodes 123456  nps 40000" then one row per line
+    public static String format(Board board, Color turn, List<Search.Info> lines) {
+        if (lines.isEmpty()) return "";
+        Search.Info last = lines.get(lines.size() - 1);
+        StringBuilder sb = new StringBuilder(96 * (lines.size() + 1));
+        sb.append("depth ").append(last.depth)
+          .append("  nodes ").append(last.nodes)
+          .append("  nps ").append(last.nps()).append('\n');
+        for (int i = 0; i < lines.size(); i++) {
+            Search.Info line = lines.get(i);
+            sb.append(String.format("  %d. %7s  ", i + 1, score(line.score)));
+            appendPv(sb, board, turn, line.pv);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // centipawns as "+0.35" / "-1.20", mates as "#3" / "#-2" (in moves, side to move's view)
+    static String score(int cp) {
+        if (Math.abs(cp) >= Search.MATE - Search.MAX_DEPTH) {
+            int plies = Search.MATE - Math.abs(cp);
+            int moves = (plies + 1) / 2;
+            return cp > 0 ? "#" + moves : "#-" + moves;
+        }
+        return String.format("%+.2f", cp / 100.0);
+    }
+
+    // PV in SAN, stopping at the first move that no longer fits the position
+    private static void appendPv(StringBuilder sb, Board board, Color turn, List<String> pv) {
+        Board b = board.copy();
+        Color side = turn;
+        for (int i = 0; i < pv.size(); i++) {
+            String move = pv.get(i);
+            String san;
+            try {
+                san = San.toSan(b, side, move);
+                b.applyMove(move, side);
+            } catch (IllegalArgumentException | IllegalMoveException e) {
+                break;
+            }
+            if (i > 0) sb.append(' ');
+            sb.append(san);
+            side = side.opposite();
+        }
+    }
+}
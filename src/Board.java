@@ -2,31 +2,63 @@ package src;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+// mutable position; not thread-safe, even for queries (isLegalMove makes and unmakes moves)
 public class Board {
     private final Piece[][] grid = new Piece[8][8];
 
+    // castling rights: 1 = white O-O, 2 = white O-O-O, 4 = black O-O, 8 = black O-O-O;
+    // a right is lost when its king or rook moves or something lands on the rook's square
+    static final int ALL_CASTLING = 0xF;
+    private int castling = ALL_CASTLING;
+
     // en passant state (one-move window)
     private Position enPassantSquare = null;     // landing square (passed-over)
     private Position enPassantVictimPos = null;  // pawn to remove if captured EP
 
+    // what the last move() destroyed, for unmake(): captured piece code (bits 0-3, BoardSnapshot
+    // encoding), raw castling rights (4-7), en passant square + 1 (8-14), promotion flag (15)
+    private int lastUndo;
+    private static final int UNDO_PROMOTION = 1 << 15;
+
+    // zobrist keys: [piece index][square], side, castling (KQkq), ep file; built on first
+    // positionKey() so one-shot rule queries never pay for them
+    private static final class Zobrist {
+        static final long[][] PIECE_KEYS = new long[12][64];
+        static final long SIDE_KEY;
+        static final long[] CASTLE_KEYS = new long[4];
+        static final long[] EP_KEYS = new long[8];
+        static {
+            Random r = new Random(0x5EEDC0FFEEL); // fixed seed so keys are stable across runs
+            for (long[] row : PIECE_KEYS) for (int i = 0; i < 64; i++) row[i] = r.nextLong();
+            SIDE_KEY = r.nextLong();
+            for (int i = 0; i < 4; i++) CASTLE_KEYS[i] = r.nextLong();
+            for (int i = 0; i < 8; i++) EP_KEYS[i] = r.nextLong();
+        }
+    }
+
+    // attack directions
+    private static final int[][] KNIGHT_JUMPS = {{1,2},{2,1},{-1,2},{-2,1},{1,-2},{2,-1},{-1,-2},{-2,-1}};
+    private static final int[][] ORTHOGONAL = {{1,0},{-1,0},{0,1},{0,-1}};
+    private static final int[][] DIAGONAL = {{1,1},{1,-1},{-1,1},{-1,-1}};
+    private static final char[] PROMOTIONS = {'q', 'r', 'b', 'n'};
+
     public Board() {}
 
     // initial setup
     public static Board standardSetup() {
         Board b = new Board();
+        PieceType[] back = {
+            PieceType.ROOK, PieceType.KNIGHT, PieceType.BISHOP, PieceType.QUEEN,
+            PieceType.KING, PieceType.BISHOP, PieceType.KNIGHT, PieceType.ROOK
+        };
         for (int x = 0; x < 8; x++) {
-            b.grid[x][1] = new Pawn(Color.WHITE);
-            b.grid[x][6] = new Pawn(Color.BLACK);
+            b.grid[x][0] = Piece.of(back[x], Color.WHITE);
+            b.grid[x][1] = Piece.of(PieceType.PAWN, Color.WHITE);
+            b.grid[x][6] = Piece.of(PieceType.PAWN, Color.BLACK);
+            b.grid[x][7] = Piece.of(back[x], Color.BLACK);
         }
-        b.grid[0][0] = new Rook(Color.WHITE); b.grid[7][0] = new Rook(Color.WHITE);
-        b.grid[0][7] = new Rook(Color.BLACK); b.grid[7][7] = new Rook(Color.BLACK);
-        b.grid[1][0] = new Knight(Color.WHITE); b.grid[6][0] = new Knight(Color.WHITE);
-        b.grid[1][7] = new Knight(Color.BLACK); b.grid[6][7] = new Knight(Color.BLACK);
-        b.grid[2][0] = new Bishop(Color.WHITE); b.grid[5][0] = new Bishop(Color.WHITE);
-        b.grid[2][7] = new Bishop(Color.BLACK); b.grid[5][7] = new Bishop(Color.BLACK);
-        b.grid[3][0] = new Queen(Color.WHITE);  b.grid[3][7] = new Queen(Color.BLACK);
-        b.grid[4][0] = new King(Color.WHITE);   b.grid[4][7] = new King(Color.BLACK);
         return b;
     }
 
@@ -49,7 +81,7 @@ public class Board {
         for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
             Piece p = grid[x][y];
             if (p != null && p.getType() == PieceType.KING && p.getColor() == color) {
-                return new Position(x, y);
+                return Position.of(x, y);
             }
         }
         return null;
@@ -88,42 +120,87 @@ public class Board {
         return mover.isLegalMove(this, from, to);
     }
 
-    // full legality (includes king safety via simulate)
+    // full legality (includes king safety via simulate); the candidate is briefly made and
+    // unmade on this board, so no other thread may read it meanwhile: give other threads a
+    // copy() or snapshot() (analysis and pondering do)
     public boolean isLegalMove(Position from, Position to, Color turn) {
+        long t = Metrics.start();
         Piece mover = get(from);
-        if (mover == null || mover.getColor() != turn) return false;
-        if (!isPseudoLegal(from, to)) return false;
+        boolean legal = mover != null && mover.getColor() == turn
+            && isPseudoLegal(from, to) && leavesKingSafe(from, to, turn);
+        Metrics.IS_LEGAL_MOVE.stop(t);
+        return legal;
+    }
+
+    // make the move on this board, test the king, unmake it (no copy; not for shared boards)
+    private boolean leavesKingSafe(Position from, Position to, Color turn) {
+        int fx = from.getX(), fy = from.getY(), tx = to.getX(), ty = to.getY();
+        Piece mover = grid[fx][fy];
+        Piece captured = grid[tx][ty];
+        Piece victim = null;               // en passant: pawn beside 'from' on the target file
+        if (isEnPassantMove(from, to)) {
+            victim = grid[tx][fy];
+            grid[tx][fy] = null;
+        }
+        int rookFrom = -1, rookTo = -1;    // castling: rook jumps over the king
+        if (isCastleMove(from, to)) {
+            rookFrom = (tx == 6) ? 7 : 0;
+            rookTo = (tx == 6) ? 5 : 3;
+            grid[rookTo][fy] = grid[rookFrom][fy];
+            grid[rookFrom][fy] = null;
+        }
+        grid[tx][ty] = mover;
+        grid[fx][fy] = null;
 
-        Board copy = this.copy();
-        copy.applyMoveWithoutSafety(from, to, true); // simulate
-        return !copy.isKingInCheck(turn);
+        boolean safe = !isKingInCheck(turn);
+
+        grid[fx][fy] = mover;
+        grid[tx][ty] = captured;
+        if (rookFrom >= 0) {
+            grid[rookFrom][fy] = grid[rookTo][fy];
+            grid[rookTo][fy] = null;
+        }
+        if (victim != null) grid[tx][fy] = victim;
+        return safe;
     }
 
     // run the move and return flags for UI/notation
     public MoveResult move(Position from, Position to, Color turn) throws IllegalMoveException {
+        long t = Metrics.start();
         if (!isLegalMove(from, to, turn)) throw new IllegalMoveException("Illegal move");
 
         Piece targetBefore = get(to);
         boolean capturedOnTarget = (targetBefore != null);
         boolean enPassant = isEnPassantMove(from, to);
 
+        Piece captured = enPassant ? get(to.getX(), from.getY()) : targetBefore;
+        boolean promotes = get(from).getType() == PieceType.PAWN && (to.getY() == 7 || to.getY() == 0);
+        lastUndo = BoardSnapshot.pieceCode(captured) | castling << 4
+            | (enPassantSquare == null ? 0 : enPassantSquare.getX() * 8 + enPassantSquare.getY() + 1) << 8
+            | (promotes ? UNDO_PROMOTION : 0);
+
         // apply (handles castling rook shift, EP victim removal, EP state updates)
-        applyMoveWithoutSafety(from, to, false);
+        applyMoveWithoutSafety(from, to);
 
         boolean capturedKing = capturedOnTarget && targetBefore.getType() == PieceType.KING;
         boolean gaveCheck = isKingInCheck(turn.opposite());
         boolean wasCaptureEffective = capturedOnTarget || enPassant;
 
+        Metrics.MOVES.inc();
+        Metrics.MOVE.stop(t);
         return new MoveResult(capturedKing, gaveCheck, wasCaptureEffective);
     }
 
     // actually apply a move (no re-checks)
-    private void applyMoveWithoutSafety(Position from, Position to, boolean forSimulation) {
+    private void applyMoveWithoutSafety(Position from, Position to) {
         Piece mover = get(from);
 
         boolean castle = isCastleMove(from, to);
         boolean enPassant = isEnPassantMove(from, to);
 
+        // a king or rook leaving home, or a capture on a rook's home, ends those rights
+        castling &= ~(castlingMask(from) | castlingMask(to));
+
         // move piece
         forceMove(from, to);
 
@@ -135,25 +212,48 @@ public class Board {
         // remove EP victim
         if (enPassant) {
             int dir = (mover.getColor() == Color.WHITE) ? 1 : -1;
-            Position victimPos = new Position(to.getX(), to.getY() - dir);
+            Position victimPos = Position.of(to.getX(), to.getY() - dir);
             set(victimPos, null);
         }
 
-        // update EP state only on real move
-        if (!forSimulation) {
-            if (mover.getType() == PieceType.PAWN) {
-                int dy = to.getY() - from.getY();
-                int dir = (mover.getColor() == Color.WHITE) ? 1 : -1;
-                if (dy == 2 * dir) {
-                    enPassantSquare = new Position(from.getX(), from.getY() + dir);
-                    enPassantVictimPos = to;
-                } else {
-                    clearEnPassantState();
-                }
+        // update EP state
+        if (mover.getType() == PieceType.PAWN) {
+            int dy = to.getY() - from.getY();
+            int dir = (mover.getColor() == Color.WHITE) ? 1 : -1;
+            if (dy == 2 * dir) {
+                enPassantSquare = Position.of(from.getX(), from.getY() + dir);
+                enPassantVictimPos = to;
             } else {
                 clearEnPassantState();
             }
+        } else {
+            clearEnPassantState();
+        }
+    }
+
+    // undo info of the last move()/applyMove(), to hand back to unmake()
+    int lastUndo() { return lastUndo; }
+
+    // take back a move played with move()/applyMove(), given the lastUndo() taken right after it
+    void unmake(Position from, Position to, int undo) {
+        Piece mover = get(to);
+        if ((undo & UNDO_PROMOTION) != 0) mover = Piece.of(PieceType.PAWN, mover.getColor());
+        set(from, mover);
+        set(to, null);
+        int y = from.getY();
+        if (mover.getType() == PieceType.KING && Math.abs(to.getX() - from.getX()) == 2) {
+            if (to.getX() == 6) forceMove(Position.of(5, y), Position.of(7, y));
+            else forceMove(Position.of(3, y), Position.of(0, y));
+        }
+        int ep = (undo >>> 8) & 0x7F;
+        Position epSquare = (ep == 0) ? null : Position.of((ep - 1) / 8, (ep - 1) % 8);
+        Piece captured = BoardSnapshot.pieceOf(undo & 0xF);
+        if (captured != null) {
+            boolean enPassant = mover.getType() == PieceType.PAWN && to.equals(epSquare);
+            set(enPassant ? Position.of(to.getX(), y) : to, captured);
         }
+        castling = (undo >>> 4) & ALL_CASTLING;
+        setEnPassantSquare(epSquare);
     }
 
     // wipe EP window
@@ -162,12 +262,21 @@ public class Board {
         enPassantVictimPos = null;
     }
 
-    // raw board move + flag as moved
+    // raw board move
     private void forceMove(Position from, Position to) {
-        Piece p = get(from);
-        set(to, p);
+        set(to, get(from));
         set(from, null);
-        if (p != null) p.setMoved();
+    }
+
+    // castling rights tied to a home square (king: both, rook: its side)
+    private static int castlingMask(Position sq) {
+        int x = sq.getX(), y = sq.getY();
+        if (y != 0 && y != 7) return 0;
+        int shift = (y == 0) ? 0 : 2;
+        if (x == 4) return 3 << shift;
+        if (x == 7) return 1 << shift;
+        if (x == 0) return 2 << shift;
+        return 0;
     }
 
     // is king-side/queen-side castle attempt
@@ -194,36 +303,34 @@ public class Board {
     private void handleCastleRookMove(Position kingTo, Color color) {
         int y = (color == Color.WHITE) ? 0 : 7;
         if (kingTo.getX() == 6 && kingTo.getY() == y) {          // O-O
-            forceMove(new Position(7, y), new Position(5, y));
+            forceMove(Position.of(7, y), Position.of(5, y));
         }
         if (kingTo.getX() == 2 && kingTo.getY() == y) {          // O-O-O
-            forceMove(new Position(0, y), new Position(3, y));
+            forceMove(Position.of(0, y), Position.of(3, y));
         }
     }
 
     // castle pre-checks (paths clear, unmoved rook/king, not through check)
     private boolean canCastle(Position from, Position to, Color color) {
         Piece king = get(from);
-        if (!(king instanceof King) || king.hasMoved()) return false;
+        if (!(king instanceof King)) return false;
         int y = (color == Color.WHITE) ? 0 : 7;
         if (from.getY() != y || to.getY() != y) return false;
 
         int dx = to.getX() - from.getX();
         if (dx == 2) { // king-side
-            Piece rook = get(new Position(7, y));
-            if (!(rook instanceof Rook) || rook.getColor() != color || rook.hasMoved()) return false;
+            if (!hasCastlingRight(color, true)) return false;
             if (get(5, y) != null || get(6, y) != null) return false;
             if (isKingInCheck(color)) return false;
-            if (isSquareAttacked(new Position(5, y), color.opposite())) return false;
-            if (isSquareAttacked(new Position(6, y), color.opposite())) return false;
+            if (isSquareAttacked(Position.of(5, y), color.opposite())) return false;
+            if (isSquareAttacked(Position.of(6, y), color.opposite())) return false;
             return true;
         } else if (dx == -2) { // queen-side
-            Piece rook = get(new Position(0, y));
-            if (!(rook instanceof Rook) || rook.getColor() != color || rook.hasMoved()) return false;
+            if (!hasCastlingRight(color, false)) return false;
             if (get(1, y) != null || get(2, y) != null || get(3, y) != null) return false;
             if (isKingInCheck(color)) return false;
-            if (isSquareAttacked(new Position(3, y), color.opposite())) return false;
-            if (isSquareAttacked(new Position(2, y), color.opposite())) return false;
+            if (isSquareAttacked(Position.of(3, y), color.opposite())) return false;
+            if (isSquareAttacked(Position.of(2, y), color.opposite())) return false;
             return true;
         }
         return false;
@@ -247,8 +354,7 @@ public class Board {
         }
 
         // knights
-        int[][] kj = {{1,2},{2,1},{-1,2},{-2,1},{1,-2},{2,-1},{-1,-2},{-2,-1}};
-        for (int[] d : kj) {
+        for (int[] d : KNIGHT_JUMPS) {
             int x = sx + d[0], y = sy + d[1];
             if (inBounds(x, y)) {
                 Piece p = get(x, y);
@@ -267,12 +373,10 @@ public class Board {
         }
 
         // rook/queen lines
-        int[][] ortho = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] d : ortho) if (rayHits(sx, sy, d[0], d[1], byColor, true)) return true;
+        for (int[] d : ORTHOGONAL) if (rayHits(sx, sy, d[0], d[1], byColor, true)) return true;
 
         // bishop/queen diagonals
-        int[][] diag = {{1,1},{1,-1},{-1,1},{-1,-1}};
-        for (int[] d : diag) if (rayHits(sx, sy, d[0], d[1], byColor, false)) return true;
+        for (int[] d : DIAGONAL) if (rayHits(sx, sy, d[0], d[1], byColor, false)) return true;
 
         return false;
     }
@@ -303,90 +407,183 @@ public class Board {
     public void promote(Position to, PieceType toType) {
         Piece p = get(to);
         if (!(p instanceof Pawn)) return;
-        Color c = p.getColor();
-        switch (toType) {
-            case QUEEN:  set(to, new Queen(c));  break;
-            case ROOK:   set(to, new Rook(c));   break;
-            case BISHOP: set(to, new Bishop(c)); break;
-            case KNIGHT: set(to, new Knight(c)); break;
-            default:     set(to, new Queen(c));
-        }
+        boolean allowed = toType == PieceType.QUEEN || toType == PieceType.ROOK
+            || toType == PieceType.BISHOP || toType == PieceType.KNIGHT;
+        set(to, Piece.of(allowed ? toType : PieceType.QUEEN, p.getColor()));
     }
 
-    // all legal moves (strings) from a square
+    // all legal moves (strings) from a square; single-threaded like isLegalMove
     public List<String> legalMovesFrom(Position from, Color turn) {
         List<String> out = new ArrayList<>();
         if (!inBounds(from.getX(), from.getY())) return out;
         Piece p = get(from);
         if (p == null || p.getColor() != turn) return out;
         for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
-            Position to = new Position(x, y);
-            if (isLegalMove(from, to, turn)) out.add(from.toString() + to.toString());
+            Position to = Position.of(x, y);
+            if (isLegalMove(from, to, turn)) out.add(moveString(from, to, (char) 0));
+        }
+        return out;
+    }
+
+    // every legal move for a side; promotions expanded to e7e8q/e7e8r/e7e8b/e7e8n;
+    // single-threaded like isLegalMove
+    public List<String> generateMoves(Color turn) {
+        List<String> out = new ArrayList<>();
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = grid[x][y];
+            if (p == null || p.getColor() != turn) continue;
+            Position from = Position.of(x, y);
+            boolean pawn = p.getType() == PieceType.PAWN;
+            for (int tx = 0; tx < 8; tx++) for (int ty = 0; ty < 8; ty++) {
+                Position to = Position.of(tx, ty);
+                if (!isLegalMove(from, to, turn)) continue;
+                if (pawn && (ty == 7 || ty == 0)) {
+                    for (char promo : PROMOTIONS) out.add(moveString(from, to, promo));
+                } else {
+                    out.add(moveString(from, to, (char) 0));
+                }
+            }
         }
         return out;
     }
 
-    // does side have any legal move at all
+    // "e2e4" / "e7e8q" built directly (no concat bootstrap on the first call of a short-lived run)
+    private static String moveString(Position from, Position to, char promo) {
+        char[] c = {(char) ('a' + from.getX()), (char) ('1' + from.getY()), (char) ('a' + to.getX()), (char) ('1' + to.getY()), promo};
+        return new String(c, 0, promo == 0 ? 4 : 5);
+    }
+
+    // play a move string like "e2e4" or "e7e8q" (promotion defaults to queen)
+    public MoveResult applyMove(String move, Color turn) throws IllegalMoveException {
+        if (move == null || (move.length() != 4 && move.length() != 5)) {
+            throw new IllegalMoveException("Bad move: " + move);
+        }
+        Position from, to;
+        try {
+            from = Position.fromAlgebraic(move.substring(0, 2));
+            to = Position.fromAlgebraic(move.substring(2, 4));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalMoveException("Bad move: " + move);
+        }
+        MoveResult res = move(from, to, turn);
+        if (isPromotionPending(to)) {
+            promote(to, move.length() == 5 ? promotionType(move.charAt(4)) : PieceType.QUEEN);
+            // the promoted piece may be the one giving check
+            res = new MoveResult(res.capturedKing, isKingInCheck(turn.opposite()), res.wasCapture);
+        }
+        return res;
+    }
+
+    // q/r/b/n -> piece type
+    static PieceType promotionType(char c) {
+        switch (Character.toLowerCase(c)) {
+            case 'r': return PieceType.ROOK;
+            case 'b': return PieceType.BISHOP;
+            case 'n': return PieceType.KNIGHT;
+            default:  return PieceType.QUEEN;
+        }
+    }
+
+    // does side have any legal move at all; single-threaded like isLegalMove
     public boolean hasAnyLegalMove(Color color) {
+        long t = Metrics.start();
+        boolean any = findAnyLegalMove(color);
+        Metrics.HAS_ANY_LEGAL_MOVE.stop(t);
+        return any;
+    }
+
+    private boolean findAnyLegalMove(Color color) {
         for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
             Piece p = grid[x][y];
             if (p == null || p.getColor() != color) continue;
-            Position from = new Position(x, y);
+            Position from = Position.of(x, y);
             for (int tx = 0; tx < 8; tx++) for (int ty = 0; ty < 8; ty++) {
-                if (isLegalMove(from, new Position(tx, ty), color)) return true;
+                if (isLegalMove(from, Position.of(tx, ty), color)) return true;
             }
         }
         return false;
     }
 
-    // console print
+    // console print (one frame; Game keeps its own renderer for highlights and ANSI mode)
     public void print(Color turn, List<String> history) {
-        System.out.println("    a  b  c  d  e  f  g  h");
-        System.out.println("   -------------------------");
-        for (int y = 7; y >= 0; y--) {
-            System.out.print((y + 1) + " | ");
-            for (int x = 0; x < 8; x++) {
-                Piece p = grid[x][y];
-                char c = (p == null) ? '.' : p.symbol();
-                System.out.print(c + "  ");
-            }
-            System.out.println("| " + (y + 1));
+        new BoardRenderer(System.out, false).render(this, history, isKingInCheck(turn), null, null);
+    }
+
+    // zobrist hash of the position with the given side to move
+    public long positionKey(Color turn) {
+        long h = 0;
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = grid[x][y];
+            if (p != null) h ^= Zobrist.PIECE_KEYS[pieceIndex(p)][x * 8 + y];
         }
-        System.out.println("   -------------------------");
-        System.out.println("    a  b  c  d  e  f  g  h");
-        if (history != null && !history.isEmpty()) {
-            System.out.println("Moves: " + String.join(" ", history));
+        if (turn == Color.BLACK) h ^= Zobrist.SIDE_KEY;
+        if (hasCastlingRight(Color.WHITE, true))  h ^= Zobrist.CASTLE_KEYS[0];
+        if (hasCastlingRight(Color.WHITE, false)) h ^= Zobrist.CASTLE_KEYS[1];
+        if (hasCastlingRight(Color.BLACK, true))  h ^= Zobrist.CASTLE_KEYS[2];
+        if (hasCastlingRight(Color.BLACK, false)) h ^= Zobrist.CASTLE_KEYS[3];
+        if (enPassantCapturable(turn)) h ^= Zobrist.EP_KEYS[enPassantSquare.getX()];
+        return h;
+    }
+
+    // EP only changes the position if a 'turn' pawn stands next to the victim
+    private boolean enPassantCapturable(Color turn) {
+        if (enPassantSquare == null || enPassantVictimPos == null) return false;
+        int vx = enPassantVictimPos.getX(), vy = enPassantVictimPos.getY();
+        for (int dx = -1; dx <= 1; dx += 2) {
+            Piece p = get(vx + dx, vy);
+            if (p instanceof Pawn && p.getColor() == turn) return true;
         }
-        if (isKingInCheck(turn)) System.out.println("! Your King is in check.");
-        System.out.println();
+        return false;
     }
 
-    // copy board (for simulations)
+    // 0..11 index: white K Q R B N P, then black
+    private static int pieceIndex(Piece p) {
+        return p.getType().ordinal() + (p.getColor() == Color.WHITE ? 0 : 6);
+    }
+
+    // right not yet lost, and king and rook actually on their home squares
+    public boolean hasCastlingRight(Color color, boolean kingSide) {
+        int bit = (color == Color.WHITE ? 1 : 4) << (kingSide ? 0 : 1);
+        if ((castling & bit) == 0) return false;
+        int y = (color == Color.WHITE) ? 0 : 7;
+        Piece king = grid[4][y];
+        Piece rook = grid[kingSide ? 7 : 0][y];
+        return king instanceof King && king.getColor() == color
+            && rook instanceof Rook && rook.getColor() == color;
+    }
+
+    // raw KQkq rights bits (see ALL_CASTLING), e.g. from a FEN
+    void setCastlingRights(int rights) { castling = rights & ALL_CASTLING; }
+
+    // landing square of a pending en passant capture (null if none)
+    Position getEnPassantSquare() { return enPassantSquare; }
+
+    // open the EP window on 'square' (used when loading a FEN)
+    void setEnPassantSquare(Position square) {
+        if (square == null) { clearEnPassantState(); return; }
+        int dir = (square.getY() == 2) ? 1 : -1; // rank 3 -> white pawn on rank 4
+        enPassantSquare = square;
+        enPassantVictimPos = Position.of(square.getX(), square.getY() + dir);
+    }
+
+    // copy board (for simulations); pieces and positions are immutable, so they are shared
     public Board copy() {
+        long t = Metrics.start();
         Board b = new Board();
-        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
-            Piece p = grid[x][y];
-            if (p == null) continue;
-            Color c = p.getColor();
-            Piece np;
-            switch (p.getType()) {
-                case KING:   np = new King(c);   break;
-                case QUEEN:  np = new Queen(c);  break;
-                case ROOK:   np = new Rook(c);   break;
-                case BISHOP: np = new Bishop(c); break;
-                case KNIGHT: np = new Knight(c); break;
-                case PAWN:   np = new Pawn(c);   break;
-                default: throw new IllegalStateException();
-            }
-            if (p.hasMoved()) np.setMoved();
-            b.grid[x][y] = np;
-        }
+        for (int x = 0; x < 8; x++) System.arraycopy(grid[x], 0, b.grid[x], 0, 8);
+        b.castling = castling;
         // carry EP state for accurate simulation
-        b.enPassantSquare = (this.enPassantSquare == null) ? null : new Position(enPassantSquare.getX(), enPassantSquare.getY());
-        b.enPassantVictimPos = (this.enPassantVictimPos == null) ? null : new Position(enPassantVictimPos.getX(), enPassantVictimPos.getY());
+        b.enPassantSquare = enPassantSquare;
+        b.enPassantVictimPos = enPassantVictimPos;
+        Metrics.BOARD_COPY.stop(t);
         return b;
     }
 
+    // immutable packed copy that any thread may read; thaw() gives a Board back
+    public BoardSnapshot snapshot() {
+        return BoardSnapshot.of(this);
+    }
+
     // return type for UI to decorate notation
     public static final class MoveResult {
         public final boolean capturedKing;
@@ -0,0 +1,124 @@
+package src;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+// console board frames built in one reusable buffer and written with a single print;
+// in ANSI mode only the squares that changed since the previous frame are redrawn
+public final class BoardRenderer {
+    private static final String HEADER = "    a  b  c  d  e  f  g  h\n";
+    private static final String RULE = "   -------------------------\n";
+    private static final int STATUS_ROW = 13;        // first screen row under the board
+    private static final int LAST_MOVE = 1, TARGET = 2;
+
+    private final PrintStream out;
+    private final boolean ansi;
+    private final StringBuilder frame = new StringBuilder(1024);
+    private final int[] cells = new int[64];         // this frame's cells, same encoding as 'shown'
+    private final int[] shown = new int[64];         // ANSI: cell drawn per square (symbol | highlight << 8)
+    private boolean drawn;                           // ANSI: a full frame is on screen
+
+    public BoardRenderer(PrintStream out, boolean ansi) {
+        this.out = out;
+        this.ansi = ansi;
+    }
+
+    public boolean isAnsi() { return ansi; }
+
+    // next frame repaints everything (e.g. after output scrolled the board away)
+    public void invalidate() { drawn = false; }
+
+    // draw the board; in ANSI mode lastMove ("e2e4", may be null) and the targets of 'pipMoves'
+    // are highlighted, plain frames stay exactly as the classic Board.print output
+    public void render(Board board, List<String> history, boolean inCheck, String lastMove, List<String> pipMoves) {
+        long t = Metrics.start();
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = board.get(x, y);
+            cells[x * 8 + y] = (p == null) ? '.' : p.symbol();
+        }
+        if (ansi && lastMove != null && lastMove.length() >= 4) {
+            mark(lastMove.substring(0, 2), LAST_MOVE);
+            mark(lastMove.substring(2, 4), LAST_MOVE);
+        }
+        if (ansi && pipMoves != null) for (String m : pipMoves) mark(m.substring(2, 4), TARGET);
+
+        frame.setLength(0);
+        if (ansi && drawn) {
+            appendChanged();
+        } else {
+            appendFull();
+        }
+        appendStatus(history, inCheck);
+        out.print(frame);
+        out.flush();
+        Metrics.RENDER.stop(t);
+    }
+
+    private void appendFull() {
+        if (ansi) frame.append("\u001b[H\u001b[2J");
+        frame.append(HEADER).append(RULE);
+        for (int y = 7; y >= 0; y--) {
+            frame.append(y + 1).append(" | ");
+            for (int x = 0; x < 8; x++) appendCell(cells[x * 8 + y]);
+            frame.append("| ").append(y + 1).append('\n');
+        }
+        frame.append(RULE).append(HEADER);
+        if (ansi) {
+            System.arraycopy(cells, 0, shown, 0, 64);
+            drawn = true;
+        }
+    }
+
+    // ANSI: reposition to each changed square only, then clear and rewrite the status area
+    private void appendChanged() {
+        for (int i = 0; i < 64; i++) {
+            if (cells[i] == shown[i]) continue;
+            int x = i / 8, y = i % 8;
+            frame.append("\u001b[").append(3 + (7 - y)).append(';').append(5 + 3 * x).append('H');
+            appendCell(cells[i]);
+            shown[i] = cells[i];
+        }
+        frame.append("\u001b[").append(STATUS_ROW).append(";1H\u001b[J");
+    }
+
+    private void appendStatus(List<String> history, boolean inCheck) {
+        if (history != null && !history.isEmpty()) {
+            frame.append("Moves: ");
+            for (int i = 0; i < history.size(); i++) {
+                if (i > 0) frame.append(' ');
+                frame.append(history.get(i));
+            }
+            frame.append('\n');
+        }
+        if (inCheck) frame.append("! Your King is in check.\n");
+        frame.append('\n');
+    }
+
+    // "P  "; highlighted cells (ANSI only) get a background colour
+    private void appendCell(int cell) {
+        char c = (char) (cell & 0xFF);
+        int hl = cell >>> 8;
+        if (hl == 0) {
+            frame.append(c).append("  ");
+        } else {
+            frame.append((hl & TARGET) != 0 ? "\u001b[30;42m" : "\u001b[30;43m").append(c).append(' ').append("\u001b[0m ");
+        }
+    }
+
+    private void mark(String square, int hl) {
+        try {
+            Position p = Position.fromAlgebraic(square);
+            cells[p.getX() * 8 + p.getY()] |= hl << 8;
+        } catch (IllegalArgumentException ignored) {
+            // not a square: nothing to highlight
+        }
+    }
+
+    // plain-text frame as a string (tests, logs)
+    static String toText(Board board, List<String> history, boolean inCheck) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BoardRenderer(new PrintStream(bytes, true), false).render(board, history, inCheck, null, null);
+        return bytes.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package src;
+
+// immutable packed position: 4 bits per square in four longs plus castling/en-passant flags;
+// safe to share between any number of threads without locks, thaw() for a mutable Board
+public final class BoardSnapshot {
+    // square codes: 0 empty, 1 + (type ordinal + 6 for black)
+    private final long s0, s1, s2, s3;   // squares 0-15, 16-31, 32-47, 48-63 (index x * 8 + y)
+    private final int flags;            // bits 0-3 castling KQkq, bits 4-10 en-passant square + 1
+
+    private static final int EP_SHIFT = 4;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    BoardSnapshot(long[] squares, int flags) {
+        this.s0 = squares[0];
+        this.s1 = squares[1];
+        this.s2 = squares[2];
+        this.s3 = squares[3];
+        this.flags = flags;
+    }
+
+    // pack a board (called by Board.snapshot())
+    static BoardSnapshot of(Board b) {
+        long[] sq = new long[4];
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = b.get(x, y);
+            if (p == null) continue;
+            int i = x * 8 + y;
+            sq[i >> 4] |= (long) pieceCode(p) << ((i & 15) * 4);
+        }
+        int f = 0; // effective rights only, so equal positions pack equal
+        if (b.hasCastlingRight(Color.WHITE, true))  f |= 1;
+        if (b.hasCastlingRight(Color.WHITE, false)) f |= 2;
+        if (b.hasCastlingRight(Color.BLACK, true))  f |= 4;
+        if (b.hasCastlingRight(Color.BLACK, false)) f |= 8;
+        Position ep = b.getEnPassantSquare();
+        if (ep != null) f |= (ep.getX() * 8 + ep.getY() + 1) << EP_SHIFT;
+        return new BoardSnapshot(sq, f);
+    }
+
+    // piece type on a square, or null if empty
+    public PieceType typeAt(int x, int y) {
+        int c = code(x, y);
+        return c == 0 ? null : TYPES[(c - 1) % 6];
+    }
+
+    // piece color on a square, or null if empty
+    public Color colorAt(int x, int y) {
+        int c = code(x, y);
+        return c == 0 ? null : (c <= 6 ? Color.WHITE : Color.BLACK);
+    }
+
+    public boolean hasCastlingRight(Color color, boolean kingSide) {
+        int bit = (color == Color.WHITE ? 0 : 2) + (kingSide ? 0 : 1);
+        return (flags & (1 << bit)) != 0;
+    }
+
+    // landing square of a pending en passant capture (null if none)
+    public Position enPassantSquare() {
+        int e = (flags >>> EP_SHIFT) - 1;
+        return e < 0 ? null : new Position(e / 8, e % 8);
+    }
+
+    // fresh mutable board for this position (pieces, castling rights, en passant)
+    public Board thaw() {
+        Board b = new Board();
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = pieceOf(code(x, y));
+            if (p != null) b.set(new Position(x, y), p);
+        }
+        b.setCastlingRights(flags & Board.ALL_CASTLING);
+        b.setEnPassantSquare(enPassantSquare());
+        return b;
+    }
+
+    // square code of a piece (0 for none); also used by Board's undo info
+    static int pieceCode(Piece p) {
+        return p == null ? 0 : 1 + p.getType().ordinal() + (p.getColor() == Color.WHITE ? 0 : 6);
+    }
+
+    // shared piece for a square code, or null for 0
+    static Piece pieceOf(int code) {
+        return code == 0 ? null : Piece.of(TYPES[(code - 1) % 6], code <= 6 ? Color.WHITE : Color.BLACK);
+    }
+
+    private int code(int x, int y) {
+        int i = x * 8 + y;
+        long w;
+        switch (i >> 4) {
+            case 0:  w = s0; break;
+            case 1:  w = s1; break;
+            case 2:  w = s2; break;
+            default: w = s3;
+        }
+        return (int) (w >>> ((i & 15) * 4)) & 0xF;
+    }
+
+    // value semantics, so snapshots can key caches and maps
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardSnapshot)) return false;
+        BoardSnapshot s = (BoardSnapshot) o;
+        return s0 == s.s0 && s1 == s.s1 && s2 == s.s2 && s3 == s.s3 && flags == s.flags;
+    }
+
+    @Override public int hashCode() {
+        long h = s0 * 31 + s1;
+        h = h * 31 + s2;
+        h = h * 31 + s3;
+        return Long.hashCode(h * 31 + flags);
+    }
+}
@@ -0,0 +1,82 @@
+package src;
+
+import java.util.function.LongSupplier;
+
+// two-sided chess clock with Fischer increment and simple (US) delay
+public class Clock {
+    private final long[] remainingMs = new long[2];
+    private final boolean[] flagged = new boolean[2];
+    private final long incrementMs;
+    private final long delayMs;
+    private final LongSupplier nanoTime;
+    private Color running;          // side whose clock is ticking (null = stopped)
+    private long startedNanos;
+
+    public Clock(long baseMs, long incrementMs, long delayMs) {
+        this(baseMs, incrementMs, delayMs, System::nanoTime);
+    }
+
+    // injectable time source for tests
+    Clock(long baseMs, long incrementMs, long delayMs, LongSupplier nanoTime) {
+        remainingMs[0] = remainingMs[1] = baseMs;
+        this.incrementMs = incrementMs;
+        this.delayMs = delayMs;
+        this.nanoTime = nanoTime;
+    }
+
+    // "5+3" = 5 minutes, 3 seconds increment
+    public static Clock parse(String spec, long delayMs) {
+        String[] p = spec.split("\\+");
+        try {
+            double minutes = Double.parseDouble(p[0]);
+            double inc = p.length > 1 ? Double.parseDouble(p[1]) : 0;
+            if (p.length > 2 || minutes <= 0 || inc < 0) throw new NumberFormatException();
+            return new Clock((long) (minutes * 60_000), (long) (inc * 1000), delayMs);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad clock: " + spec + " (use minutes+increment, e.g. 5+3)");
+        }
+    }
+
+    // begin 'side's turn (no-op if its clock is already running)
+    public void start(Color side) {
+        if (running == side) return;
+        if (running != null) stop();
+        running = side;
+        startedNanos = nanoTime.getAsLong();
+    }
+
+    // end the running side's turn; false if it ran out of time
+    public boolean stop() {
+        if (running == null) return true;
+        int s = running.ordinal();
+        long used = Math.max(0, elapsedMs() - delayMs);
+        remainingMs[s] -= used;
+        running = null;
+        if (remainingMs[s] <= 0) {
+            remainingMs[s] = 0;
+            flagged[s] = true;
+            return false;
+        }
+        remainingMs[s] += incrementMs;
+        return true;
+    }
+
+    // time left, live for the running side
+    public long remaining(Color side) {
+        long r = remainingMs[side.ordinal()];
+        if (running == side) r -= Math.max(0, elapsedMs() - delayMs);
+        return Math.max(0, r);
+    }
+
+    public boolean flagged(Color side) { return flagged[side.ordinal()] || remaining(side) == 0; }
+
+    public long increment() { return incrementMs; }
+
+    // m:ss.t
+    public String display(Color side) {
+        long ms = remaining(side);
+        return String.format("%d:%02d.%d", ms / 60_000, (ms / 1000) % 60, (ms / 100) % 10);
+    }
+
+    private long elapsedMs() { return (nanoTime.getAsLong() - startedNanos) / 1_000_000; }
+}
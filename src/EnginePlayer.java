@@ -0,0 +1,101 @@
+package src;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// engine side of a Game; optionally ponders on the opponent's time
+public class EnginePlayer implements AutoCloseable {
+    private static final Search.Limits INFINITE = new Search.Limits(0, 0, 0);
+
+    private final Search search = new Search(new TranspositionTable(1 << 20));
+    private final Search.Limits limits;
+    private final boolean ponder;
+    private final ExecutorService ponderThread;
+
+    private Future<Search.Info> pondering;   // running ponder search, or null
+    private long ponderKey;                  // position it is searching (after the predicted reply)
+    private boolean lastWasPonderHit;
+
+    public EnginePlayer(Search.Limits limits, boolean ponder) {
+        this.limits = limits;
+        this.ponder = ponder;
+        this.ponderThread = ponder ? Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ponder");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    // choose a move for 'turn' under the default limits
+    public Search.Info think(Board board, Color turn) {
+        return think(board, turn, limits);
+    }
+
+    // choose a move under explicit limits (e.g. from the clock); resolves any ponder search first
+    public Search.Info think(Board board, Color turn, Search.Limits moveLimits) {
+        lastWasPonderHit = false;
+        if (pondering != null) {
+            if (board.positionKey(turn) == ponderKey) {
+                lastWasPonderHit = true;
+                Search.Info info = finishPonder(moveLimits);
+                if (info != null && info.bestMove() != null) return info;
+            } else {
+                finishPonder(null);
+            }
+        }
+        return search.search(board, turn, moveLimits);
+    }
+
+    // true if the last think() was answered by the ponder search
+    public boolean lastWasPonderHit() { return lastWasPonderHit; }
+
+    // after our move: search the predicted reply while the opponent thinks
+    public void startPonder(Board board, Color opponent, Search.Info ourMove) {
+        if (!ponder || ourMove.pv.size() < 2) return;
+        Board predicted = board.copy();
+        try {
+            predicted.applyMove(ourMove.pv.get(1), opponent);
+        } catch (IllegalMoveException e) {
+            return; // stale PV entry
+        }
+        Color us = opponent.opposite();
+        if (!predicted.hasAnyLegalMove(us)) return;
+        ponderKey = predicted.positionKey(us);
+        pondering = ponderThread.submit(() -> search.search(predicted, us, INFINITE));
+    }
+
+    // hit (limits given): keep searching under them, time since ponder start counts; miss (null): cancel
+    private Search.Info finishPonder(Search.Limits hitLimits) {
+        Future<Search.Info> f = pondering;
+        pondering = null;
+        while (true) {
+            // repeat the signal: the ponder task may not have entered search() yet
+            if (hitLimits != null) search.ponderhit(hitLimits); else search.stop();
+            try {
+                return f.get(5, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // still running
+            } catch (ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                search.stop();
+                return null;
+            }
+        }
+    }
+
+    // stop pondering (e.g. the game ended)
+    public void cancelPonder() {
+        if (pondering != null) finishPonder(null);
+    }
+
+    @Override public void close() {
+        cancelPonder();
+        if (ponderThread != null) ponderThread.shutdownNow();
+    }
+}
@@ -0,0 +1,183 @@
+package src;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// runs an EPD test suite (bm/am/id) across a fixed pool of search workers
+public class EpdRunner {
+
+    // one EPD line; bm/am already converted to coordinate moves
+    public static final class Entry {
+        public final String id;
+        public final String fen;
+        public final List<String> bestMoves;
+        public final List<String> avoidMoves;
+        Entry(String id, String fen, List<String> bestMoves, List<String> avoidMoves) {
+            this.id = id;
+            this.fen = fen;
+            this.bestMoves = bestMoves;
+            this.avoidMoves = avoidMoves;
+        }
+        // bm: move must be listed; am: move must not be listed
+        boolean accepts(String move) {
+            if (move == null) return false;
+            if (!bestMoves.isEmpty() && !bestMoves.contains(move)) return false;
+            return !avoidMoves.contains(move);
+        }
+    }
+
+    // result of searching one entry
+    public static final class Outcome {
+        public final Entry entry;
+        public final String move;
+        public final boolean solved;
+        public final long solveMillis;  // time from which the answer stayed correct (-1 if unsolved)
+        public final long nodes;
+        public final long millis;
+        Outcome(Entry entry, String move, boolean solved, long solveMillis, long nodes, long millis) {
+            this.entry = entry;
+            this.move = move;
+            this.solved = solved;
+            this.solveMillis = solveMillis;
+            this.nodes = nodes;
+            this.millis = millis;
+        }
+    }
+
+    // suite totals
+    public static final class Report {
+        public final List<Outcome> outcomes;
+        public final int solved;
+        public final long wallMillis;
+        public final long totalNodes;
+        Report(List<Outcome> outcomes, long wallMillis) {
+            this.outcomes = outcomes;
+            this.wallMillis = wallMillis;
+            int s = 0;
+            long n = 0;
+            for (Outcome o : outcomes) {
+                if (o.solved) s++;
+                n += o.nodes;
+            }
+            this.solved = s;
+            this.totalNodes = n;
+        }
+        public double averageSolveMillis() {
+            return outcomes.stream().filter(o -> o.solved).mapToLong(o -> o.solveMillis).average().orElse(0);
+        }
+        // aggregate nodes per second over the wall clock, i.e. across all workers
+        public long nps() { return wallMillis == 0 ? totalNodes * 1000 : totalNodes * 1000 / wallMillis; }
+        public String summary() {
+            return String.format("Solved %d/%d, avg time-to-solution %.0f ms, %d nodes in %d ms (%d nps)",
+                solved, outcomes.size(), averageSolveMillis(), totalNodes, wallMillis, nps());
+        }
+    }
+
+    private final int threads;
+    private final Search.Limits limits;
+
+    public EpdRunner(int threads, Search.Limits limits) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        this.threads = threads;
+        this.limits = limits;
+    }
+
+    // read all non-blank, non-comment lines of an EPD file
+    public static List<Entry> load(Path file) throws IOException {
+        List<Entry> out = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String t = line.trim();
+            if (t.isEmpty() || t.startsWith("#")) continue;
+            out.add(parse(t));
+        }
+        return out;
+    }
+
+    // "<4 FEN fields> bm Nf3; am e4; id \"x\";"
+    public static Entry parse(String line) {
+        String[] f = line.trim().split("\\s+", 5);
+        if (f.length < 4) throw new IllegalArgumentException("Bad EPD: " + line);
+        String fen = f[0] + " " + f[1] + " " + f[2] + " " + f[3];
+        Fen.Setup setup = Fen.parse(fen);
+
+        String id = "";
+        List<String> bm = new ArrayList<>(), am = new ArrayList<>();
+        if (f.length == 5) {
+            for (String op : operations(f[4])) {
+                String[] kv = op.trim().split("\\s+", 2);
+                if (kv.length < 2) continue;
+                switch (kv[0]) {
+                    case "id": id = kv[1].replace("\"", "").trim(); break;
+                    case "bm": for (String m : kv[1].split("\\s+")) bm.add(San.parse(setup.board, setup.turn, m)); break;
+                    case "am": for (String m : kv[1].split("\\s+")) am.add(San.parse(setup.board, setup.turn, m)); break;
+                    default: break; // other opcodes are not used by the runner
+                }
+            }
+        }
+        return new Entry(id, fen, bm, am);
+    }
+
+    // the ';'-terminated operations of an EPD line; a ';' inside a quoted string is data
+    static List<String> operations(String ops) {
+        List<String> out = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < ops.length(); i++) {
+            char c = ops.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ';' && !quoted) {
+                out.add(ops.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (start < ops.length()) out.add(ops.substring(start));
+        return out;
+    }
+
+    // search every entry; results come back in input order
+    public Report run(List<Entry> entries) throws InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // each worker thread reuses its own Search; the table is cleared per position (see analyse)
+        ThreadLocal<Search> searches = ThreadLocal.withInitial(Search::new);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (Entry e : entries) futures.add(pool.submit(() -> analyse(searches.get(), e)));
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> f : futures) {
+                try {
+                    outcomes.add(f.get());
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("EPD worker failed", ex.getCause());
+                }
+            }
+            return new Report(outcomes, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Outcome analyse(Search search, Entry e) {
+        Fen.Setup setup = Fen.parse(e.fen);  // fresh Board owned by this worker
+        search.clearTable();                 // results must not depend on the positions this thread ran before
+        long[] solvedSince = { -1 };
+        Search.Info info = search.search(setup.board, setup.turn, limits, it -> {
+            if (e.accepts(it.bestMove())) {
+                if (solvedSince[0] < 0) solvedSince[0] = it.millis;
+            } else {
+                solvedSince[0] = -1;
+            }
+        });
+        boolean solved = e.accepts(info.bestMove());
+        return new Outcome(e, info.bestMove(), solved, solved ? Math.max(0, solvedSince[0]) : -1, info.nodes, info.millis);
+    }
+}
@@ -0,0 +1,46 @@
+package src;
+
+// static evaluation: material plus a light centralisation/advancement bonus
+public final class Eval {
+    // centipawn values indexed by PieceType ordinal (K Q R B N P)
+    static final int[] VALUE = { 0, 900, 500, 330, 320, 100 };
+
+    // bonus for pieces nearer the centre (by distance from d4/e5 box)
+    private static final int[] CENTRE = { 0, 4, 8, 12 };
+
+    private Eval() {}
+
+    // score from the point of view of 'turn'
+    public static int evaluate(Board b, Color turn) {
+        int score = 0;
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = b.get(x, y);
+            if (p == null) continue;
+            int v = VALUE[p.getType().ordinal()] + positional(p, x, y);
+            score += (p.getColor() == Color.WHITE) ? v : -v;
+        }
+        return turn == Color.WHITE ? score : -score;
+    }
+
+    // piece value only (used for capture ordering)
+    static int value(Piece p) {
+        return p == null ? 0 : VALUE[p.getType().ordinal()];
+    }
+
+    private static int positional(Piece p, int x, int y) {
+        int fx = Math.min(x, 7 - x), fy = Math.min(y, 7 - y); // 0 edge .. 3 centre
+        switch (p.getType()) {
+            case KNIGHT:
+            case BISHOP:
+                return CENTRE[Math.min(fx, fy)] * 2;
+            case PAWN: {
+                int advance = (p.getColor() == Color.WHITE) ? y - 1 : 6 - y;
+                return advance * 4 + (fx == 3 ? 8 : 0);
+            }
+            case QUEEN:
+                return CENTRE[Math.min(fx, fy)];
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package src;
+
+// FEN read/write for puzzles, test suites and saved positions
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // a parsed position: board plus side to move
+    public static final class Setup {
+        public final Board board;
+        public final Color turn;
+        Setup(Board board, Color turn) {
+            this.board = board;
+            this.turn = turn;
+        }
+    }
+
+    private Fen() {}
+
+    // parse the first four FEN fields (clocks are optional and ignored)
+    public static Setup parse(String fen) {
+        if (fen == null) throw new IllegalArgumentException("Bad FEN: null");
+        String[] f = fen.trim().split("\\s+");
+        if (f.length < 2) throw new IllegalArgumentException("Bad FEN: " + fen);
+
+        Board b = new Board();
+        String[] ranks = f[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("Bad FEN: " + fen);
+        for (int i = 0; i < 8; i++) {
+            int y = 7 - i, x = 0;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) { x += c - '0'; continue; }
+                if (x > 7) throw new IllegalArgumentException("Bad FEN: " + fen);
+                b.set(new Position(x++, y), pieceFor(c));
+            }
+            if (x != 8) throw new IllegalArgumentException("Bad FEN: " + fen);
+        }
+
+        Color turn;
+        if (f[1].equals("w")) turn = Color.WHITE;
+        else if (f[1].equals("b")) turn = Color.BLACK;
+        else throw new IllegalArgumentException("Bad FEN: " + fen);
+
+        String castle = f.length > 2 ? f[2] : "-";
+        int rights = 0;
+        if (castle.indexOf('K') >= 0) rights |= 1;
+        if (castle.indexOf('Q') >= 0) rights |= 2;
+        if (castle.indexOf('k') >= 0) rights |= 4;
+        if (castle.indexOf('q') >= 0) rights |= 8;
+        b.setCastlingRights(rights);
+
+        if (f.length > 3 && !f[3].equals("-")) b.setEnPassantSquare(Position.fromAlgebraic(f[3]));
+        return new Setup(b, turn);
+    }
+
+    // write board + side as FEN (clocks fixed at "0 1")
+    public static String toFen(Board b, Color turn) {
+        StringBuilder sb = new StringBuilder(80);
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                Piece p = b.get(x, y);
+                if (p == null) { empty++; continue; }
+                if (empty > 0) { sb.append(empty); empty = 0; }
+                sb.append(p.symbol());
+            }
+            if (empty > 0) sb.append(empty);
+            if (y > 0) sb.append('/');
+        }
+        sb.append(turn == Color.WHITE ? " w " : " b ");
+        int len = sb.length();
+        if (b.hasCastlingRight(Color.WHITE, true))  sb.append('K');
+        if (b.hasCastlingRight(Color.WHITE, false)) sb.append('Q');
+        if (b.hasCastlingRight(Color.BLACK, true))  sb.append('k');
+        if (b.hasCastlingRight(Color.BLACK, false)) sb.append('q');
+        if (sb.length() == len) sb.append('-');
+        Position ep = b.getEnPassantSquare();
+        sb.append(' ').append(ep == null ? "-" : ep.toString());
+        sb.append(" 0 1");
+        return sb.toString();
+    }
+
+    // 'K' -> white king, 'p' -> black pawn, ...
+    private static Piece pieceFor(char c) {
+        Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+        switch (Character.toLowerCase(c)) {
+            case 'k': return Piece.of(PieceType.KING, color);
+            case 'q': return Piece.of(PieceType.QUEEN, color);
+            case 'r': return Piece.of(PieceType.ROOK, color);
+            case 'b': return Piece.of(PieceType.BISHOP, color);
+            case 'n': return Piece.of(PieceType.KNIGHT, color);
+            case 'p': return Piece.of(PieceType.PAWN, color);
+            default: throw new IllegalArgumentException("Bad FEN piece: " + c);
+        }
+    }
+}
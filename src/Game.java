@@ -1,5 +1,7 @@
 package src;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
@@ -10,115 +12,375 @@ public class Game {
     private Color turn = Color.WHITE;
     private String whiteName = "White";
     private String blackName = "Black";
-    private final List<String> history = new ArrayList<>();
+    private final GameHistory history;          // moves with undo info, for undo/redo/goto
+    private final GameJournal.Factory journals; // null = no persistence
+    private GameJournal journal;
+    private OpeningIndex openings;              // null = explorer not loaded
+    private final EnginePlayer[] engines = new EnginePlayer[2]; // by Color ordinal; null = human
+    private Clock clock;                        // null = untimed
+    private Search analysisSearch;              // created on first 'analyze'
+    private MateSolver mateSolver;              // created on first 'mate'; solve() clears its table
+    private String pendingCommand;              // line that interrupted an analysis, run next
+    private BoardRenderer renderer = new BoardRenderer(System.out, false);
+    private boolean redraw = true;              // position or highlights changed since the last frame
+    private boolean inCheck;                    // side to move is in check (known from the last move)
+    private String lastMove;                    // highlighted in the next frame
+    private List<String> pipMoves;              // ANSI only: targets highlighted until the next move
 
     // wire up scanner + fresh board
     public Game(Scanner in) {
+        this(in, null);
+    }
+
+    // fresh game whose moves are journaled through 'journals' (may be null)
+    public Game(Scanner in, GameJournal.Factory journals) {
         this.in = in;
         this.board = Board.standardSetup();
+        this.history = new GameHistory(board, turn);
+        this.journals = journals;
+    }
+
+    // continue a game recovered from its journal
+    public Game(Scanner in, GameJournal.Recovered state, GameJournal journal) {
+        this.in = in;
+        this.board = state.board;
+        this.turn = state.turn;
+        this.whiteName = state.whiteName;
+        this.blackName = state.blackName;
+        this.history = new GameHistory(board, turn, state.history); // takebacks stop at the resumed ply
+        this.journals = null;
+        this.journal = journal;
+        this.inCheck = board.isKingInCheck(turn);
+    }
+
+    // attach an opening explorer index for the 'explore' command
+    public void setOpeningIndex(OpeningIndex openings) {
+        this.openings = openings;
+    }
+
+    // let an engine play 'side' (null hands it back to a human)
+    public void setEngine(Color side, EnginePlayer engine) {
+        engines[side.ordinal()] = engine;
+    }
+
+    // draw frames with this renderer (e.g. ANSI diff mode)
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    // play with per-side clocks; running out of time loses
+    public void setClock(Clock clock) {
+        this.clock = clock;
     }
 
     // main loop
     public void run() {
         System.out.println("== Console Chess ==");
-        System.out.print("Enter White player name: ");
-        String w = in.nextLine().trim();
-        if (!w.isEmpty()) whiteName = w;
-        System.out.print("Enter Black player name: ");
-        String b = in.nextLine().trim();
-        if (!b.isEmpty()) blackName = b;
+        if (journal != null) {
+            System.out.println("Resumed " + whiteName + " vs " + blackName + " after " + history.ply() + " plies.");
+        } else {
+            System.out.print("Enter White player name: ");
+            String w = in.nextLine().trim();
+            if (!w.isEmpty()) whiteName = w;
+            System.out.print("Enter Black player name: ");
+            String b = in.nextLine().trim();
+            if (!b.isEmpty()) blackName = b;
+            if (journals != null) {
+                try {
+                    journal = journals.create(whiteName, blackName, board, turn);
+                } catch (IOException e) {
+                    System.out.println("Journal unavailable, game will not be saved: " + e.getMessage());
+                }
+            }
+        }
 
         while (true) {
-            board.print(turn, history);
-            System.out.print(nameOf(turn) + " to move > ");
-            String cmd = in.nextLine().trim();
-
-            // commands
-            if (cmd.equalsIgnoreCase("q") || cmd.equalsIgnoreCase("quit")) {
-                System.out.println("Goodbye.");
-                return;
-            }
-            if (cmd.equalsIgnoreCase("help") || cmd.equalsIgnoreCase("?")) {
-                printHelp();
-                continue;
+            if (redraw) {
+                renderer.render(board, history.notation(), inCheck, lastMove, pipMoves);
+                redraw = false;
             }
-            if (cmd.equalsIgnoreCase("hint")) {
-                showAllLegalMovesForCurrentPlayer();
+            if (clock != null) clock.start(turn);
+            EnginePlayer engine = engines[turn.ordinal()];
+            if (engine != null) {
+                if (playEngineMove(engine)) return;
                 continue;
             }
-            if (cmd.equalsIgnoreCase("resign") || cmd.equalsIgnoreCase("r")) {
-                System.out.println(nameOf(turn) + " resigns. " + nameOf(turn.opposite()) + " wins!");
-                return;
-            }
-            if (cmd.startsWith("pip")) {
-                handlePip(cmd);
-                continue;
+            String cmd;
+            if (pendingCommand != null) {
+                cmd = pendingCommand;
+                pendingCommand = null;
+            } else {
+                System.out.print(nameOf(turn) + clockText() + " to move > ");
+                cmd = in.nextLine().trim();
             }
+            if (flagFell()) return;              // time ran out while the command was typed
 
-            // allow "O-O"/"O-O-O" or "0-0"/"0-0-0"
-            if (cmd.equalsIgnoreCase("o-o") || cmd.equalsIgnoreCase("0-0")) {
-                cmd = castleToMoveString(true);
-            } else if (cmd.equalsIgnoreCase("o-o-o") || cmd.equalsIgnoreCase("0-0-0")) {
-                cmd = castleToMoveString(false);
+            long t = Metrics.start();
+            boolean over = handleCommand(cmd);
+            Metrics.COMMANDS.inc();
+            Metrics.COMMAND.stop(t);
+            if (over) return;
+        }
+    }
+
+    // run one console command or move; true if the game is over
+    private boolean handleCommand(String cmd) {
+        // commands
+        if (cmd.equalsIgnoreCase("q") || cmd.equalsIgnoreCase("quit")) {
+            System.out.println("Goodbye.");
+            stopPondering();
+            if (journal != null) {               // left unfinished so it can be resumed, at the ply on the board
+                syncJournal();
+                if (journal != null) closeJournal();
             }
+            return true;
+        }
+        if (cmd.equalsIgnoreCase("help") || cmd.equalsIgnoreCase("?")) {
+            printHelp();
+            return false;
+        }
+        if (cmd.equalsIgnoreCase("board")) {
+            renderer.invalidate();
+            redraw = true;
+            return false;
+        }
+        if (cmd.equalsIgnoreCase("hint")) {
+            showAllLegalMovesForCurrentPlayer();
+            return false;
+        }
+        if (cmd.equalsIgnoreCase("resign") || cmd.equalsIgnoreCase("r")) {
+            System.out.println(nameOf(turn) + " resigns. " + nameOf(turn.opposite()) + " wins!");
+            stopPondering();
+            finishJournal(turn == Color.WHITE ? "0-1" : "1-0");
+            return true;
+        }
+        if (cmd.startsWith("pip")) {
+            handlePip(cmd);
+            return false;
+        }
+        if (cmd.equalsIgnoreCase("explore")) {
+            showExplorer();
+            return false;
+        }
+        if (cmd.toLowerCase().startsWith("mate")) {
+            handleMate(cmd);
+            return false;
+        }
+        if (cmd.toLowerCase().startsWith("analyze")) {
+            handleAnalyze(cmd);
+            return false;
+        }
+        if (cmd.toLowerCase().startsWith("stats")) {
+            handleStats(cmd);
+            return false;
+        }
+        if (cmd.equalsIgnoreCase("undo") || cmd.equalsIgnoreCase("redo") || cmd.toLowerCase().startsWith("goto")) {
+            handleNavigation(cmd);
+            return false;
+        }
 
-            // moves like "e2e4"
-            if (cmd.length() == 4) {
-                String fromStr = cmd.substring(0, 2);
-                String toStr   = cmd.substring(2, 4);
-                try {
-                    Position from = Position.fromAlgebraic(fromStr);
-                    Position to   = Position.fromAlgebraic(toStr);
-
-                    if (!Board.inBounds(from.getX(), from.getY()) || !Board.inBounds(to.getX(), to.getY())) {
-                        System.out.println("Invalid square.");
-                        continue;
-                    }
-                    if (!board.isLegalMove(from, to, turn)) {
-                        System.out.println("Illegal move. Try 'hint' or 'pip e2'.");
-                        continue;
-                    }
-
-                    Board.MoveResult res = board.move(from, to, turn);
-
-                    // promotion prompt
-                    String promoSuffix = "";
-                    if (board.isPromotionPending(to)) {
-                        PieceType choice = askPromotion(turn);
-                        board.promote(to, choice);
-                        promoSuffix = switch (choice) {
-                            case QUEEN -> "=Q";
-                            case ROOK -> "=R";
-                            case BISHOP -> "=B";
-                            case KNIGHT -> "=N";
-                            default -> "=Q";
-                        };
-                    }
-
-                    // minimal notation
-                    String notation = fromStr + (res.wasCapture ? "x" : "") + toStr + promoSuffix + (res.gaveCheck ? "+" : "");
-                    history.add(notation);
-
-                    // checkmate?
-                    Color opp = turn.opposite();
-                    boolean oppInCheck = board.isKingInCheck(opp);
-                    boolean oppHasMove = board.hasAnyLegalMove(opp);
-                    if (oppInCheck && !oppHasMove) {
-                        board.print(turn, history);
-                        System.out.println("Checkmate — " + nameOf(turn) + " wins!");
-                        return;
-                    }
-
-                    // swap turns
-                    turn = opp;
-                } catch (IllegalArgumentException | IllegalMoveException ex) {
-                    System.out.println("Error: " + ex.getMessage());
+        // allow "O-O"/"O-O-O" or "0-0"/"0-0-0"
+        if (cmd.equalsIgnoreCase("o-o") || cmd.equalsIgnoreCase("0-0")) {
+            cmd = castleToMoveString(true);
+        } else if (cmd.equalsIgnoreCase("o-o-o") || cmd.equalsIgnoreCase("0-0-0")) {
+            cmd = castleToMoveString(false);
+        }
+
+        // moves like "e2e4"
+        if (cmd.length() == 4) {
+            String fromStr = cmd.substring(0, 2);
+            String toStr   = cmd.substring(2, 4);
+            try {
+                Position from = Position.fromAlgebraic(fromStr);
+                Position to   = Position.fromAlgebraic(toStr);
+
+                if (!Board.inBounds(from.getX(), from.getY()) || !Board.inBounds(to.getX(), to.getY())) {
+                    System.out.println("Invalid square.");
+                    return false;
                 }
-                continue;
+                if (!board.isLegalMove(from, to, turn)) {
+                    System.out.println("Illegal move. Try 'hint' or 'pip e2'.");
+                    return false;
+                }
+
+                if (stopClock()) return true;
+                syncJournal();
+                Board.MoveResult res = board.move(from, to, turn);
+
+                // promotion prompt
+                String move = fromStr + toStr;
+                if (board.isPromotionPending(to)) {
+                    PieceType choice = askPromotion(turn);
+                    board.promote(to, choice);
+                    move += switch (choice) {
+                        case ROOK -> "r";
+                        case BISHOP -> "b";
+                        case KNIGHT -> "n";
+                        default -> "q";
+                    };
+                }
+
+                return completeMove(move, res);
+            } catch (IllegalArgumentException | IllegalMoveException ex) {
+                System.out.println("Error: " + ex.getMessage());
             }
+            return false;
+        }
+
+        System.out.println("Unknown command. Type 'help' to see all commands.");
+        return false;
+    }
+
+    // record an applied move, detect mate and pass the turn; true if the game is over
+    private boolean completeMove(String move, Board.MoveResult res) {
+        // minimal notation
+        history.record(move, notation(move, res.wasCapture, res.gaveCheck), board.lastUndo(), board);
+
+        // checkmate?
+        Color opp = turn.opposite();
+        journalMove(move, res.wasCapture, res.gaveCheck, opp);
+        boolean oppInCheck = board.isKingInCheck(opp);
+        boolean oppHasMove = board.hasAnyLegalMove(opp);
+        lastMove = move;
+        pipMoves = null;
+        if (oppInCheck && !oppHasMove) {
+            renderer.render(board, history.notation(), false, lastMove, null);
+            System.out.println("Checkmate — " + nameOf(turn) + " wins!");
+            stopPondering();
+            finishJournal(turn == Color.WHITE ? "1-0" : "0-1");
+            return true;
+        }
+
+        // swap turns
+        turn = opp;
+        inCheck = oppInCheck;
+        redraw = true;
+        return false;
+    }
+
+    // engine's turn: think (or collect the ponder result), play, then ponder the reply
+    private boolean playEngineMove(EnginePlayer engine) {
+        System.out.println(nameOf(turn) + " is thinking...");
+        Search.Info info = (clock == null) ? engine.think(board, turn)
+            : engine.think(board, turn, TimeManager.limitsFor(clock.remaining(turn), clock.increment()));
+        String move = info.bestMove();
+        if (move == null) {
+            System.out.println(nameOf(turn) + " has no legal moves. Game over.");
+            stopPondering();
+            finishJournal("1/2-1/2");
+            return true;
+        }
+        if (stopClock()) return true;
+        Board.MoveResult res;
+        syncJournal();
+        try {
+            res = board.applyMove(move, turn);
+        } catch (IllegalMoveException e) {
+            throw new IllegalStateException("Engine chose illegal move " + move, e);
+        }
+        System.out.printf("%s plays %s (depth %d, score %d, %d nodes, %d ms%s)%n", nameOf(turn), move,
+            info.depth, info.score, info.nodes, info.millis, engine.lastWasPonderHit() ? ", ponder hit" : "");
+        if (completeMove(move, res)) return true;
+        if (engines[turn.ordinal()] == null) engine.startPonder(board, turn, info);
+        return false;
+    }
+
+    // end the mover's turn before its move touches the board; true if it had already flagged
+    private boolean stopClock() {
+        if (clock == null || clock.stop()) return false;
+        loseOnTime();
+        return true;
+    }
+
+    // the side to move flagged while it was still deciding; true if the game is over
+    private boolean flagFell() {
+        if (clock == null || !clock.flagged(turn)) return false;
+        clock.stop();
+        loseOnTime();
+        return true;
+    }
+
+    private void loseOnTime() {
+        System.out.println(nameOf(turn) + " ran out of time. " + nameOf(turn.opposite()) + " wins!");
+        stopPondering();
+        finishJournal(turn == Color.WHITE ? "0-1" : "1-0");
+    }
+
+    // " [4:59.3 | 5:00.0]" (white | black), empty when untimed
+    private String clockText() {
+        if (clock == null) return "";
+        return " [" + clock.display(Color.WHITE) + " | " + clock.display(Color.BLACK) + "]";
+    }
+
+    private void stopPondering() {
+        for (EnginePlayer e : engines) if (e != null) e.cancelPonder();
+    }
+
+    // database moves from the current position with W/D/L percentages
+    private void showExplorer() {
+        if (openings == null) {
+            System.out.println("No opening index loaded (start with --book <index>).");
+            return;
+        }
+        List<OpeningIndex.MoveStats> stats = openings.query(board, turn);
+        if (stats.isEmpty()) {
+            System.out.println("Position not in the opening index.");
+            return;
+        }
+        for (OpeningIndex.MoveStats m : stats) {
+            double n = m.games();
+            System.out.printf("  %-8s %7d games  W %3.0f%%  D %3.0f%%  B %3.0f%%%n",
+                San.toSan(board, turn, m.move), m.games(),
+                100 * m.whiteWins / n, 100 * m.draws / n, 100 * m.blackWins / n);
+        }
+    }
+
+    // "e7e8q" + flags -> "e7xe8=Q+" style history entry
+    static String notation(String move, boolean capture, boolean check) {
+        String promo = move.length() == 5 ? "=" + Character.toUpperCase(move.charAt(4)) : "";
+        return move.substring(0, 2) + (capture ? "x" : "") + move.substring(2, 4) + promo + (check ? "+" : "");
+    }
+
+    // durably log a move; a failing journal is reported and dropped, the game goes on
+    private void journalMove(String move, boolean capture, boolean check, Color next) {
+        if (journal == null) return;
+        try {
+            journal.recordMove(move, capture, check, board, next);
+        } catch (IOException e) {
+            System.out.println("Journal write failed, game will no longer be saved: " + e.getMessage());
+            closeJournal();
+        }
+    }
 
-            System.out.println("Unknown command. Type 'help' to see all commands.");
+    private void finishJournal(String result) {
+        syncJournal();
+        if (journal == null) return;
+        try {
+            journal.finish(result);
+        } catch (IOException e) {
+            System.out.println("Journal write failed: " + e.getMessage());
         }
+        closeJournal();
+    }
+
+    // after takebacks the journal runs past the board: cut it back before the game goes on
+    private void syncJournal() {
+        if (journal == null || journal.ply() == history.ply()) return;
+        try {
+            journal.rewind(history.ply(), board, turn);
+        } catch (IOException e) {
+            System.out.println("Journal write failed, game will no longer be saved: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException ignored) {
+            // nothing left to save
+        }
+        journal = null;
     }
 
     // list every legal move for the side to move
@@ -155,6 +417,10 @@ public class Game {
                 System.out.println("No legal moves from " + parts[1] + " for " + nameOf(turn) + ".");
             } else {
                 moves.sort(String::compareTo);
+                if (renderer.isAnsi()) {   // cheap diff frame showing the targets, list printed under it
+                    pipMoves = moves;
+                    renderer.render(board, history.notation(), inCheck, lastMove, pipMoves);
+                }
                 System.out.println("Legal moves from " + parts[1] + ": " + String.join(" ", moves));
             }
         } catch (IllegalArgumentException e) {
@@ -162,6 +428,143 @@ public class Game {
         }
     }
 
+    // "mate 3" -> try to prove a forced mate for the side to move
+    private void handleMate(String cmd) {
+        String[] parts = cmd.split("\\s+");
+        int n;
+        try {
+            n = (parts.length == 2) ? Integer.parseInt(parts[1]) : -1;
+        } catch (NumberFormatException e) {
+            n = -1;
+        }
+        if (n < 1) {
+            System.out.println("Usage: mate <N> (e.g. mate 3)");
+            return;
+        }
+        if (mateSolver == null) mateSolver = new MateSolver();
+        MateSolver.Result r = mateSolver.solve(board, turn, n);
+        System.out.println(describeMate(r, n));
+    }
+
+    // "analyze 3" -> stream the best N lines until the next input line; a command typed there runs next
+    private void handleAnalyze(String cmd) {
+        String[] parts = cmd.split("\\s+");
+        int lines;
+        try {
+            lines = (parts.length == 1) ? 3 : (parts.length == 2) ? Integer.parseInt(parts[1]) : -1;
+        } catch (NumberFormatException e) {
+            lines = -1;
+        }
+        if (lines < 1) {
+            System.out.println("Usage: analyze [N] (e.g. analyze 3)");
+            return;
+        }
+        if (!board.hasAnyLegalMove(turn)) {
+            System.out.println("No legal moves to analyze.");
+            return;
+        }
+        if (analysisSearch == null) analysisSearch = new Search(new TranspositionTable(1 << 20));
+        System.out.println("Analyzing " + nameOf(turn) + " to move; press Enter (or type a command) to stop.");
+        Board at = board.copy();
+        Color side = turn;
+        Analysis analysis = Analysis.start(analysisSearch, at, side, lines,
+            iteration -> System.out.print(Analysis.format(at, side, iteration)));
+        String line = in.nextLine().trim();
+        List<Search.Info> last = analysis.stop();
+        if (!last.isEmpty()) {
+            System.out.println("Stopped at depth " + last.get(0).depth + ", best " + San.toSan(board, turn, last.get(0).bestMove()) + ".");
+        }
+        if (!line.isEmpty()) pendingCommand = line;
+        if (renderer.isAnsi()) {   // the stream scrolled the board off its rows
+            renderer.invalidate();
+            redraw = true;
+        }
+    }
+
+    // "undo" / "redo" / "goto 12" -> move through the game; plies played by an engine are
+    // stepped over so that a human is to move afterwards (the engine would only replay them)
+    private void handleNavigation(String cmd) {
+        if (clock != null) {
+            System.out.println("Takebacks are not available in timed games.");
+            return;
+        }
+        String[] parts = cmd.split("\\s+");
+        String verb = parts[0].toLowerCase();
+        int target;
+        if (verb.equals("goto")) {
+            try {
+                target = (parts.length == 2) ? Integer.parseInt(parts[1]) : -1;
+            } catch (NumberFormatException e) {
+                target = -1;
+            }
+            if (target < history.first() || target > history.size()) {
+                System.out.println("Usage: goto <ply> (" + history.first() + "-" + history.size() + ")");
+                return;
+            }
+        } else {
+            int step = verb.equals("undo") ? -1 : 1;
+            target = history.ply() + step;
+            boolean human = engines[0] == null || engines[1] == null;
+            while (human && target >= history.first() && target <= history.size()
+                    && engines[history.turnAt(target).ordinal()] != null) {
+                target += step;
+            }
+            if (target < history.first() || target > history.size()) {
+                System.out.println(step < 0 ? "Nothing to undo." : "Nothing to redo.");
+                return;
+            }
+        }
+        stopPondering();
+        board = history.seek(board, target);
+        turn = history.turnAt(target);
+        inCheck = board.isKingInCheck(turn);
+        lastMove = history.lastMove();
+        pipMoves = null;
+        redraw = true;
+        System.out.println("Ply " + target + " of " + history.size() + ".");
+    }
+
+    // "stats" / "stats on|off|reset" / "stats export [file]" -> runtime metrics
+    private void handleStats(String cmd) {
+        String[] parts = cmd.split("\\s+");
+        String sub = parts.length > 1 ? parts[1].toLowerCase() : "";
+        switch (sub) {
+            case "":
+                System.out.print(Metrics.report());
+                break;
+            case "on":
+            case "off":
+                Metrics.setEnabled(sub.equals("on"));
+                System.out.println("Metrics recording " + sub + ".");
+                break;
+            case "reset":
+                Metrics.reset();
+                System.out.println("Metrics cleared.");
+                break;
+            case "export":
+                Path file = Path.of(parts.length > 2 ? parts[2] : "chess-metrics.prom");
+                try {
+                    Metrics.writePrometheus(file);
+                    System.out.println("Metrics written to " + file + ".");
+                } catch (IOException e) {
+                    System.out.println("Could not write metrics: " + e.getMessage());
+                }
+                break;
+            default:
+                System.out.println("Usage: stats [on|off|reset|export [file]]");
+        }
+    }
+
+    // one-line summary of a solver result
+    static String describeMate(MateSolver.Result r, int n) {
+        String stats = " (" + r.nodes + " nodes, " + r.millis + " ms)";
+        switch (r.status) {
+            case PROVEN:    return "Mate in " + n + " found: " + r.move + stats;
+            case DISPROVEN: return "No mate in " + n + "." + stats;
+            default:        return "Mate in " + n + " undecided: node budget exhausted." + stats;
+        }
+    }
+
     // map castle commands to actual squares for current side
     private String castleToMoveString(boolean kingSide) {
         int y = (turn == Color.WHITE) ? 0 : 7;
@@ -174,8 +577,15 @@ public class Game {
     private void printHelp() {
         System.out.println("Commands:");
         System.out.println("  e2e4      Make a move (from-to).");
+        System.out.println("  board     Draw the board again.");
         System.out.println("  hint      Show ALL legal moves for the current player.");
         System.out.println("  pip e2    List legal moves from a specific square.");
+        System.out.println("  explore   Show opening-database moves for this position.");
+        System.out.println("  mate 3    Search for a forced mate in N moves.");
+        System.out.println("  analyze 3 Stream the best N engine lines until Enter.");
+        System.out.println("  stats     Show metrics (stats on|off|reset|export [file]).");
+        System.out.println("  undo      Take back the last move (redo plays it again).");
+        System.out.println("  goto 12   Jump to a ply of this game (0 = start).");
         System.out.println("  o-o       Castle kingside (or e1g1 / e8g8).");
         System.out.println("  o-o-o     Castle queenside (or e1c1 / e8c8).");
         System.out.println("  resign    Resign the game (alias: r).");
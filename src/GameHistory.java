@@ -0,0 +1,101 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// the moves of one game as 16-bit codes plus Board undo info, with a packed snapshot every
+// CHECKPOINT_EVERY plies; seek() reaches any ply by stepping from the current position or
+// replaying from the nearest checkpoint, whichever is fewer moves (never more than the interval)
+public final class GameHistory {
+    public static final int CHECKPOINT_EVERY = 16;
+
+    private final int first;               // plies before the start position (resumed games: notation only)
+    private final Color firstTurn;         // side to move at ply 'first'
+    private final List<String> notation;   // every recorded ply, including the earlier ones
+    private final List<BoardSnapshot> checkpoints = new ArrayList<>(); // k -> position at first + k * CHECKPOINT_EVERY
+    private short[] moves = new short[64]; // MoveCodec, indexed from 'first'
+    private int[] undos = new int[64];     // Board.lastUndo() right after each move
+    private int size;                      // plies recorded (counted from the game start)
+    private int ply;                       // ply on the board; size - ply plies can be redone
+
+    public GameHistory(Board start, Color turn) {
+        this(start, turn, List.of());
+    }
+
+    // history continuing after 'earlier' plies whose moves are not known (a resumed game)
+    public GameHistory(Board start, Color turn, List<String> earlier) {
+        this.first = earlier.size();
+        this.firstTurn = turn;
+        this.notation = new ArrayList<>(earlier);
+        this.size = this.ply = first;
+        checkpoints.add(start.snapshot());
+    }
+
+    public int ply() { return ply; }
+    public int size() { return size; }
+
+    // earliest ply seek() can reach
+    public int first() { return first; }
+
+    public Color turnAt(int ply) {
+        return ((ply - first) & 1) == 0 ? firstTurn : firstTurn.opposite();
+    }
+
+    // notation of the plies up to the current one (a live view)
+    public List<String> notation() { return notation.subList(0, ply); }
+
+    // move that led to the current ply ("e2e4"), null at the start
+    public String lastMove() {
+        return ply > first ? MoveCodec.decode(moves[ply - 1 - first]) : null;
+    }
+
+    // append a move just played on 'after'; any plies that could be redone are dropped
+    public void record(String move, String san, int undo, Board after) {
+        int i = ply - first;
+        if (i == moves.length) {
+            moves = Arrays.copyOf(moves, i * 2);
+            undos = Arrays.copyOf(undos, i * 2);
+        }
+        moves[i] = MoveCodec.encode(move);
+        undos[i] = undo;
+        notation.subList(ply, size).clear();
+        notation.add(san);
+        // checkpoints past this ply belong to the dropped line
+        int keep = i / CHECKPOINT_EVERY + 1;
+        checkpoints.subList(Math.min(keep, checkpoints.size()), checkpoints.size()).clear();
+        size = ++ply;
+        if ((ply - first) % CHECKPOINT_EVERY == 0) checkpoints.add(after.snapshot());
+    }
+
+    // bring 'board' (the position at ply()) to 'target'; returns the board now holding it,
+    // which is either 'board' itself or one thawed from a checkpoint
+    public Board seek(Board board, int target) {
+        if (target < first || target > size) {
+            throw new IllegalArgumentException("Ply " + target + " out of range " + first + "-" + size);
+        }
+        int fromCheckpoint = (target - first) % CHECKPOINT_EVERY;
+        if (Math.abs(target - ply) > fromCheckpoint) {
+            board = checkpoints.get((target - first) / CHECKPOINT_EVERY).thaw();
+            ply = target - fromCheckpoint;
+        }
+        while (ply > target) {
+            int i = --ply - first;
+            short code = moves[i];
+            board.unmake(square(code & 63), square((code >>> 6) & 63), undos[i]);
+        }
+        while (ply < target) {
+            int i = ply - first;
+            try {
+                board.applyMove(MoveCodec.decode(moves[i]), turnAt(ply));
+            } catch (IllegalMoveException e) {
+                throw new IllegalStateException("recorded move " + MoveCodec.decode(moves[i]) + " failed on replay", e);
+            }
+            undos[i] = board.lastUndo();
+            ply++;
+        }
+        return board;
+    }
+
+    private static Position square(int s) { return Position.of(s & 7, s >>> 3); }
+}
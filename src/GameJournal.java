@@ -0,0 +1,297 @@
+package src;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// append-only binary journal of one game; records are [type][len][payload][crc32]
+public class GameJournal implements AutoCloseable {
+    public static final String SUFFIX = ".journal";
+    public static final int SNAPSHOT_EVERY = 32; // plies between board snapshots
+
+    private static final byte HEADER = 'H', SNAPSHOT = 'S', MOVE = 'M', REWIND = 'R', END = 'E';
+    private static final int MAGIC = 0x43434A31; // "CCJ1"
+    private static final byte CAPTURE = 1, CHECK = 2;
+
+    // state rebuilt from a journal file
+    public static final class Recovered {
+        public final String id;
+        public final String whiteName, blackName;
+        public final Board board;
+        public final Color turn;
+        public final List<String> history;
+        public final boolean finished;
+        final long validLength;   // bytes up to the last verified record
+        Recovered(String id, String whiteName, String blackName, Board board, Color turn,
+                  List<String> history, boolean finished, long validLength) {
+            this.id = id;
+            this.whiteName = whiteName;
+            this.blackName = blackName;
+            this.board = board;
+            this.turn = turn;
+            this.history = history;
+            this.finished = finished;
+            this.validLength = validLength;
+        }
+        public int ply() { return history.size(); }
+    }
+
+    // opens the journal for a new game once the players are known
+    public interface Factory {
+        GameJournal create(String whiteName, String blackName, Board board, Color turn) throws IOException;
+    }
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    // journals named game-<millis>-<seq> in dir, sharing one syncer; names sort oldest first, and
+    // a name already taken (another process in the same millisecond) just moves on to the next one
+    public static Factory factory(Path dir, JournalSyncer syncer) {
+        return (w, b, board, turn) -> {
+            while (true) {
+                String id = String.format("game-%d-%06d", System.currentTimeMillis(), SEQUENCE.incrementAndGet() % 1_000_000);
+                try {
+                    return create(dir, id, syncer, w, b, board, turn);
+                } catch (FileAlreadyExistsException e) {
+                    // taken: try the next sequence number
+                }
+            }
+        };
+    }
+
+    private final String id;
+    private final FileChannel ch;
+    private final JournalSyncer syncer;
+    private int ply;
+
+    private GameJournal(String id, FileChannel ch, JournalSyncer syncer, int ply) {
+        this.id = id;
+        this.ch = ch;
+        this.syncer = syncer;
+        this.ply = ply;
+    }
+
+    // new journal: header plus an initial snapshot of the starting position
+    public static GameJournal create(Path dir, String id, JournalSyncer syncer,
+                                     String whiteName, String blackName, Board board, Color turn) throws IOException {
+        Files.createDirectories(dir);
+        FileChannel ch = FileChannel.open(dir.resolve(id + SUFFIX),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        GameJournal j = new GameJournal(id, ch, syncer, 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeUTF(whiteName);
+        out.writeUTF(blackName);
+        j.write(HEADER, bytes.toByteArray());
+        j.writeSnapshot(board, turn);
+        j.sync();
+        return j;
+    }
+
+    // reopen a recovered journal for appending; a torn tail is cut off first
+    public static GameJournal resume(Path dir, Recovered r, JournalSyncer syncer) throws IOException {
+        FileChannel ch = FileChannel.open(dir.resolve(r.id + SUFFIX), StandardOpenOption.WRITE);
+        ch.truncate(r.validLength);
+        ch.position(r.validLength);
+        return new GameJournal(r.id, ch, syncer, r.ply());
+    }
+
+    public String id() { return id; }
+
+    // plies logged so far
+    public int ply() { return ply; }
+
+    // log one applied move; durable when this returns
+    public void recordMove(String move, boolean capture, boolean check, Board after, Color nextTurn) throws IOException {
+        ByteBuffer p = ByteBuffer.allocate(11);
+        p.putShort(MoveCodec.encode(move));
+        p.put((byte) ((capture ? CAPTURE : 0) | (check ? CHECK : 0)));
+        p.putLong(after.positionKey(nextTurn));
+        write(MOVE, p.array());
+        if (++ply % SNAPSHOT_EVERY == 0) writeSnapshot(after, nextTurn);
+        sync();
+    }
+
+    // moves were taken back: the game now continues from 'board' at 'toPly'; one record carries
+    // both the cut and the position, so recovery never sees one without the other
+    public void rewind(int toPly, Board board, Color turn) throws IOException {
+        if (toPly < 0 || toPly > ply) throw new IllegalArgumentException("Cannot rewind to ply " + toPly);
+        ply = toPly;
+        write(REWIND, snapshotPayload(board, turn));
+        sync();
+    }
+
+    // mark the game over so it is not resumed
+    public void finish(String result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeUTF(result);
+        write(END, bytes.toByteArray());
+        sync();
+    }
+
+    @Override public void close() throws IOException { ch.close(); }
+
+    private void writeSnapshot(Board board, Color turn) throws IOException {
+        write(SNAPSHOT, snapshotPayload(board, turn));
+    }
+
+    // [ply][FEN] at the current ply
+    private byte[] snapshotPayload(Board board, Color turn) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ply);
+        out.writeUTF(Fen.toFen(board, turn));
+        return bytes.toByteArray();
+    }
+
+    private void write(byte type, byte[] payload) throws IOException {
+        ByteBuffer rec = ByteBuffer.allocate(1 + 2 + payload.length + 4);
+        rec.put(type).putShort((short) payload.length).put(payload);
+        rec.putInt(crc(type, payload, payload.length));
+        rec.flip();
+        while (rec.hasRemaining()) ch.write(rec);
+    }
+
+    private void sync() throws IOException {
+        if (syncer != null) syncer.commit(ch); else ch.force(false);
+    }
+
+    private static int crc(byte type, byte[] payload, int len) {
+        CRC32 c = new CRC32();
+        c.update(type);
+        c.update(payload, 0, len);
+        return (int) c.getValue();
+    }
+
+    // every journal in dir that is not finished, oldest first
+    public static List<Recovered> recoverUnfinished(Path dir) throws IOException {
+        List<Recovered> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path p : ds) files.add(p);
+        }
+        files.sort(null);
+        for (Path p : files) {
+            Recovered r = recover(p);
+            if (r != null && !r.finished) out.add(r);
+        }
+        return out;
+    }
+
+    // replay one journal from its last snapshot; null if it has no usable header
+    public static Recovered recover(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String id = name.endsWith(SUFFIX) ? name.substring(0, name.length() - SUFFIX.length()) : name;
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+
+        String white = null, black = null;
+        String snapFen = null;
+        List<String> history = new ArrayList<>();
+        List<String> tail = new ArrayList<>();      // moves after the last snapshot
+        List<Long> tailKeys = new ArrayList<>();
+        List<Long> tailEnds = new ArrayList<>();    // file offset after each tail move
+        long snapEnd = 0, validLength = 0;
+        boolean finished = false;
+
+        while (buf.remaining() >= 7) {
+            int start = buf.position();
+            byte type = buf.get();
+            int len = buf.getShort() & 0xFFFF;
+            if (buf.remaining() < len + 4) break;    // torn tail
+            byte[] payload = new byte[len];
+            buf.get(payload);
+            if (buf.getInt() != crc(type, payload, len)) break;
+            long end = buf.position();
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+            if (type == HEADER) {
+                if (start != 0 || in.readInt() != MAGIC) return null;
+                white = in.readUTF();
+                black = in.readUTF();
+            } else if (white == null) {
+                return null;                          // records before any header
+            } else if (type == SNAPSHOT) {
+                int snapPly = in.readInt();
+                if (snapPly != history.size()) break;
+                snapFen = in.readUTF();
+                Fen.parse(snapFen);
+                tail.clear(); tailKeys.clear(); tailEnds.clear();
+                snapEnd = end;
+            } else if (type == REWIND) {
+                int toPly = in.readInt();
+                if (toPly > history.size()) break;
+                snapFen = in.readUTF();
+                Fen.parse(snapFen);
+                history.subList(toPly, history.size()).clear();
+                tail.clear(); tailKeys.clear(); tailEnds.clear();
+                snapEnd = end;
+            } else if (type == MOVE) {
+                ByteBuffer p = ByteBuffer.wrap(payload);
+                String move = MoveCodec.decode(p.getShort());
+                byte flags = p.get();
+                history.add(Game.notation(move, (flags & CAPTURE) != 0, (flags & CHECK) != 0));
+                tail.add(move);
+                tailKeys.add(p.getLong());
+                tailEnds.add(end);
+            } else if (type == END) {
+                finished = true;
+            } else {
+                break;
+            }
+            validLength = end;
+        }
+        if (white == null || snapFen == null) return null;
+
+        // replay from the snapshot, verifying each position hash
+        Fen.Setup setup = Fen.parse(snapFen);
+        Board board = setup.board;
+        Color turn = setup.turn;
+        int base = history.size() - tail.size();
+        for (int i = 0; i < tail.size(); i++) {
+            boolean ok;
+            try {
+                board.applyMove(tail.get(i), turn);
+                ok = board.positionKey(turn.opposite()) == tailKeys.get(i);
+            } catch (IllegalMoveException e) {
+                ok = false;
+            }
+            if (!ok) {
+                // keep only the verified prefix and cut the rest on resume
+                Recovered good = recoverPrefix(id, white, black, snapFen, tail.subList(0, i));
+                return new Recovered(id, white, black, good.board, good.turn,
+                    new ArrayList<>(history.subList(0, base + i)), false, i == 0 ? snapEnd : tailEnds.get(i - 1));
+            }
+            turn = turn.opposite();
+        }
+        return new Recovered(id, white, black, board, turn, history, finished, validLength);
+    }
+
+    // snapshot plus already verified moves (board/turn only)
+    private static Recovered recoverPrefix(String id, String white, String black, String snapFen, List<String> moves) {
+        Fen.Setup setup = Fen.parse(snapFen);
+        Color turn = setup.turn;
+        for (String m : moves) {
+            try {
+                setup.board.applyMove(m, turn);
+            } catch (IllegalMoveException e) {
+                throw new IllegalStateException("verified move failed on replay", e);
+            }
+            turn = turn.opposite();
+        }
+        return new Recovered(id, white, black, setup.board, turn, List.of(), false, 0);
+    }
+}
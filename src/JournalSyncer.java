@@ -0,0 +1,113 @@
+package src;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// group commit: one background thread fsyncs every journal written since the last batch
+public final class JournalSyncer implements AutoCloseable {
+    private final Thread flusher;
+    private Set<FileChannel> dirty = new LinkedHashSet<>();
+    private long filling = 1;     // batch currently collecting writers
+    private long completed = 0;   // last batch that reached the disk
+    private long failedBatch = -1; // first batch whose fsync failed; it and every later batch fail too
+    private IOException failure;
+    private long flushes;
+    private boolean closed;
+    private boolean stopped;      // flusher thread has exited
+
+    public JournalSyncer() {
+        flusher = new Thread(this::flushLoop, "journal-sync");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // block until everything already written to 'ch' is on disk
+    public void commit(FileChannel ch) throws IOException {
+        long ticket;
+        synchronized (this) {
+            if (closed) throw new IOException("Journal syncer closed");
+            if (failure != null) throw new IOException("Earlier journal fsync failed", failure);
+            dirty.add(ch);
+            ticket = filling;
+            notifyAll();
+            boolean interrupted = false;
+            while (completed < ticket && !stopped) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            // batch numbers equal tickets, so every ticket from the first failure on is unsafe
+            if (failure != null && ticket >= failedBatch) throw failure;
+            if (completed < ticket) throw new IOException("Journal syncer closed");
+        }
+    }
+
+    // number of fsync batches so far (each may cover many commits)
+    public synchronized long flushes() { return flushes; }
+
+    private void flushLoop() {
+        try {
+            flushBatches();
+        } finally {
+            synchronized (this) {
+                stopped = true;
+                notifyAll();
+            }
+        }
+    }
+
+    private void flushBatches() {
+        while (true) {
+            Set<FileChannel> batch;
+            long batchNo;
+            synchronized (this) {
+                while (dirty.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (dirty.isEmpty()) return; // closed and drained
+                batch = dirty;
+                dirty = new LinkedHashSet<>();
+                batchNo = filling++;
+            }
+            IOException error = null;
+            for (FileChannel ch : batch) {
+                try {
+                    ch.force(false);
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            synchronized (this) {
+                if (error != null && failure == null) {  // fsync errors are sticky: later data may sit on lost pages
+                    failedBatch = batchNo;
+                    failure = error;
+                }
+                completed = batchNo;
+                flushes++;
+                notifyAll();
+            }
+        }
+    }
+
+    // flush what is pending, then stop the thread
+    @Override public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,10 +1,281 @@
 package src;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
+    private static final long METRICS_EXPORT_SECONDS = 10;
+
     public static void main(String[] args) {
-        Game game = new Game(new Scanner(System.in));
-        game.run();
+        // --query legal|status [fen]: answer one rules question and exit (no game loop)
+        if (args.length >= 2 && args[0].equals("--query")) {
+            System.exit(runQuery(args));
+        }
+        // --mate N [fen]: solve a mate-in-N problem and exit
+        if (args.length >= 2 && args[0].equals("--mate")) {
+            System.exit(runMate(args));
+        }
+        // --epd file [--threads N] [--movetime MS | --nodes N | --depth D]: run a test suite
+        if (args.length >= 2 && args[0].equals("--epd")) {
+            System.exit(runEpd(args));
+        }
+        // --match openings [--games N] [--concurrency C] [--a SPEC] [--b SPEC] [--pgn FILE] [--elo0 E --elo1 E]
+        if (args.length >= 2 && args[0].equals("--match")) {
+            System.exit(runMatch(args));
+        }
+        // --import INDEX PGN... [--threads N] [--max-ply P]: build an opening explorer index
+        if (args.length >= 3 && args[0].equals("--import")) {
+            System.exit(runImport(args));
+        }
+        // interactive: [--journal DIR] [--book INDEX] [--engine white|black|both] [--movetime MS] [--ponder]
+        //              [--clock MIN+INC] [--delay SEC] [--metrics FILE] [--ansi]
+        System.exit(runInteractive(args));
+    }
+
+    // one-shot rules query for scripts; exit code 0 = answered, 2 = bad input
+    private static int runQuery(String[] args) {
+        try {
+            String fen = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Fen.START;
+            System.out.println(query(args[1], fen));
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Usage: --query legal|status [fen]  (" + e.getMessage() + ")");
+            return 2;
+        }
+    }
+
+    // answer one query about a position
+    //   legal  -> legal moves, sorted, space separated
+    //   status -> checkmate | stalemate | check | normal
+    static String query(String kind, String fen) {
+        Fen.Setup setup = Fen.parse(fen);
+        switch (kind) {
+            case "legal": {
+                List<String> moves = setup.board.generateMoves(setup.turn);
+                moves.sort(null); // natural order; a method reference would bootstrap a lambda
+                return String.join(" ", moves);
+            }
+            case "status": {
+                boolean check = setup.board.isKingInCheck(setup.turn);
+                boolean canMove = setup.board.hasAnyLegalMove(setup.turn);
+                return canMove ? (check ? "check" : "normal") : (check ? "checkmate" : "stalemate");
+            }
+            default:
+                throw new IllegalArgumentException("unknown query " + kind);
+        }
+    }
+
+    // interactive game, optionally journaled and with an opening explorer
+    private static int runInteractive(String[] args) {
+        Path journalDir = null, book = null;
+        String engineSide = null;
+        long movetime = 1000;
+        boolean ponder = false;
+        String clockSpec = null;
+        double delay = 0;
+        Clock clock = null;
+        Path metricsFile = null;
+        boolean ansi = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--journal") && i + 1 < args.length) journalDir = Path.of(args[++i]);
+                else if (args[i].equals("--book") && i + 1 < args.length) book = Path.of(args[++i]);
+                else if (args[i].equals("--engine") && i + 1 < args.length) engineSide = args[++i].toLowerCase();
+                else if (args[i].equals("--movetime") && i + 1 < args.length) movetime = Long.parseLong(args[++i]);
+                else if (args[i].equals("--ponder")) ponder = true;
+                else if (args[i].equals("--clock") && i + 1 < args.length) clockSpec = args[++i];
+                else if (args[i].equals("--delay") && i + 1 < args.length) delay = Double.parseDouble(args[++i]);
+                else if (args[i].equals("--metrics") && i + 1 < args.length) metricsFile = Path.of(args[++i]);
+                else if (args[i].equals("--ansi")) ansi = true;
+                else throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+            if (engineSide != null && !List.of("white", "black", "both").contains(engineSide)) {
+                throw new IllegalArgumentException("--engine takes white, black or both");
+            }
+            if (clockSpec != null) clock = Clock.parse(clockSpec, (long) (delay * 1000));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Usage: [--journal DIR] [--book INDEX] [--engine white|black|both] [--movetime MS] [--ponder]"
+                + " [--clock MIN+INC] [--delay SEC] [--metrics FILE] [--ansi]  ("
+                + e.getMessage() + ")");
+            return 2;
+        }
+        Scanner in = new Scanner(System.in);
+        ScheduledExecutorService exporter = metricsFile == null ? null : startMetricsExport(metricsFile);
+        try (JournalSyncer syncer = journalDir == null ? null : new JournalSyncer();
+             OpeningIndex openings = book == null ? null : OpeningIndex.open(book)) {
+            Game game;
+            List<GameJournal.Recovered> open = journalDir == null ? List.of() : GameJournal.recoverUnfinished(journalDir);
+            if (!open.isEmpty()) {
+                GameJournal.Recovered r = open.get(open.size() - 1); // most recent
+                game = new Game(in, r, GameJournal.resume(journalDir, r, syncer));
+            } else if (journalDir != null) {
+                game = new Game(in, GameJournal.factory(journalDir, syncer));
+            } else {
+                game = new Game(in);
+            }
+            game.setOpeningIndex(openings);
+            game.setClock(clock);
+            if (ansi) game.setRenderer(new BoardRenderer(System.out, true));
+            List<EnginePlayer> players = new java.util.ArrayList<>();
+            for (Color c : Color.values()) {
+                if (engineSide != null && (engineSide.equals("both") || engineSide.equals(c.name().toLowerCase()))) {
+                    EnginePlayer p = new EnginePlayer(Search.Limits.millis(movetime), ponder);
+                    players.add(p);
+                    game.setEngine(c, p);
+                }
+            }
+            try {
+                game.run();
+            } finally {
+                for (EnginePlayer p : players) p.close();
+            }
+            return 0;
+        } catch (IOException e) {
+            System.out.println("Startup error: " + e.getMessage());
+            return 2;
+        } finally {
+            if (exporter != null) {
+                exporter.shutdownNow();
+                exportMetrics(metricsFile);
+            }
+        }
+    }
+
+    // record metrics from the start and rewrite the Prometheus file every few seconds
+    private static ScheduledExecutorService startMetricsExport(Path file) {
+        Metrics.setEnabled(true);
+        ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-export");
+            t.setDaemon(true);
+            return t;
+        });
+        s.scheduleAtFixedRate(() -> exportMetrics(file), METRICS_EXPORT_SECONDS, METRICS_EXPORT_SECONDS, TimeUnit.SECONDS);
+        return s;
+    }
+
+    private static void exportMetrics(Path file) {
+        try {
+            Metrics.writePrometheus(file);
+        } catch (IOException e) {
+            System.err.println("Metrics export failed: " + e.getMessage());
+        }
+    }
+
+    // PGN import; exit code 0 = index written, 2 = bad input
+    private static int runImport(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors(), maxPly = 40;
+        List<Path> pgns = new java.util.ArrayList<>();
+        try {
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--threads") && i + 1 < args.length) threads = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--max-ply") && i + 1 < args.length) maxPly = Integer.parseInt(args[++i]);
+                else pgns.add(Path.of(args[i]));
+            }
+            if (pgns.isEmpty()) throw new IllegalArgumentException("no PGN files");
+            OpeningImporter.Stats s = new OpeningImporter(threads, maxPly, 1_000_000).importFiles(pgns, Path.of(args[1]));
+            System.out.printf("Imported %d games (%d skipped), %d position-moves in %d ms%n",
+                s.games, s.skipped, s.records, s.millis);
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Usage: --import <index> <pgn>... [--threads N] [--max-ply P]  (" + e.getMessage() + ")");
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 2;
+        }
+    }
+
+    // one-shot mate solver; exit code 0 = mate found, 1 = none/unknown, 2 = bad input
+    private static int runMate(String[] args) {
+        try {
+            int n = Integer.parseInt(args[1]);
+            String fen = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Fen.START;
+            Fen.Setup setup = Fen.parse(fen);
+            MateSolver.Result r = new MateSolver().solve(setup.board, setup.turn, n);
+            System.out.println(Game.describeMate(r, n));
+            return r.status == MateSolver.Status.PROVEN ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Usage: --mate <N> [fen]  (" + e.getMessage() + ")");
+            return 2;
+        }
+    }
+
+    // EPD suite; exit code 0 = ran, 2 = bad input
+    private static int runEpd(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = 0;
+        long nodes = 0, movetime = 0;
+        try {
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 == args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                switch (args[i]) {
+                    case "--threads":  threads = Integer.parseInt(args[i + 1]); break;
+                    case "--movetime": movetime = Long.parseLong(args[i + 1]); break;
+                    case "--nodes":    nodes = Long.parseLong(args[i + 1]); break;
+                    case "--depth":    depth = Integer.parseInt(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            if (depth == 0 && nodes == 0 && movetime == 0) movetime = 1000;
+            List<EpdRunner.Entry> entries = EpdRunner.load(Path.of(args[1]));
+            EpdRunner.Report report = new EpdRunner(threads, new Search.Limits(depth, nodes, movetime)).run(entries);
+            for (EpdRunner.Outcome o : report.outcomes) {
+                System.out.printf("%-12s %-6s %-5s %8d nodes %6d ms%n",
+                    o.entry.id, o.move, o.solved ? "ok" : "FAIL", o.nodes, o.millis);
+            }
+            System.out.println(report.summary());
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Usage: --epd <file> [--threads N] [--movetime MS | --nodes N | --depth D]  (" + e.getMessage() + ")");
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 2;
+        }
+    }
+
+    // engine self-play match with SPRT; exit code 0 = ran, 2 = bad input
+    private static int runMatch(String[] args) {
+        int games = 1000, concurrency = Runtime.getRuntime().availableProcessors();
+        String specA = "nodes:4000", specB = "nodes:2000", pgn = "match.pgn";
+        double elo0 = 0, elo1 = 10;
+        try {
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 == args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                switch (args[i]) {
+                    case "--games":       games = Integer.parseInt(args[i + 1]); break;
+                    case "--concurrency": concurrency = Integer.parseInt(args[i + 1]); break;
+                    case "--a":           specA = args[i + 1]; break;
+                    case "--b":           specB = args[i + 1]; break;
+                    case "--pgn":         pgn = args[i + 1]; break;
+                    case "--elo0":        elo0 = Double.parseDouble(args[i + 1]); break;
+                    case "--elo1":        elo1 = Double.parseDouble(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+            Sprt sprt = new Sprt(elo0, elo1, 0.05, 0.05);
+            Tournament t = new Tournament(Tournament.Player.parse("A " + specA, specA),
+                Tournament.Player.parse("B " + specB, specB), Tournament.Adjudication.defaults(), sprt, concurrency);
+            Tournament.Standings s = t.run(Tournament.loadOpenings(Path.of(args[1])), games, Path.of(pgn), st ->
+                System.out.printf("Games %d: +%d =%d -%d  Elo %.1f +/- %.1f  LLR %.2f [%.2f, %.2f]%n",
+                    st.games(), st.wins, st.draws, st.losses,
+                    Sprt.elo(st.wins, st.draws, st.losses), Sprt.eloError(st.wins, st.draws, st.losses),
+                    sprt.llr(st.wins, st.draws, st.losses), sprt.lowerBound(), sprt.upperBound()));
+            System.out.println("Result: " + s.verdict + " after " + s.games() + " games (PGN in " + pgn + ")");
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Usage: --match <openings> [--games N] [--concurrency C] [--a SPEC] [--b SPEC] [--pgn FILE]"
+                + " [--elo0 E] [--elo1 E]  (" + e.getMessage() + ")");
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 2;
+        }
     }
 }
@@ -0,0 +1,288 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// proves or refutes "side to move mates in N" with depth-first proof-number search (df-pn)
+public class MateSolver {
+    public enum Status { PROVEN, DISPROVEN, UNKNOWN }
+
+    // outcome of one solve() call
+    public static final class Result {
+        public final Status status;
+        public final String move;   // first move of the mate (PROVEN only)
+        public final long nodes;
+        public final long millis;
+        Result(Status status, String move, long nodes, long millis) {
+            this.status = status;
+            this.move = move;
+            this.nodes = nodes;
+            this.millis = millis;
+        }
+    }
+
+    static final int INF = 100_000_000;
+    public static final long DEFAULT_NODE_BUDGET = 2_000_000;
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+    // one node of the AND/OR tree; OR = attacker to move
+    private static final class Node {
+        final Board board;
+        final Color side;
+        final int remaining;  // plies left, including this one
+        final long key;
+        final String move;    // move that led here
+        Node(Board board, Color side, int remaining, String move) {
+            this.board = board;
+            this.side = side;
+            this.remaining = remaining;
+            this.key = board.positionKey(side) ^ depthKey(remaining);
+            this.move = move;
+        }
+    }
+
+    private final long nodeBudget;
+    private final ProofTable table;
+    private Color attacker;
+    private long nodes;
+    private long nodeLimit;   // mid() and forcesMate() stop past this many nodes
+
+    public MateSolver() { this(DEFAULT_NODE_BUDGET, DEFAULT_TABLE_ENTRIES); }
+
+    // nodeBudget caps expansions; tableEntries caps the proof table (rounded to a power of two)
+    public MateSolver(long nodeBudget, int tableEntries) {
+        this.nodeBudget = nodeBudget;
+        this.table = new ProofTable(tableEntries);
+    }
+
+    // can 'turn' force mate within 'moves' of its own moves?
+    public Result solve(Board board, Color turn, int moves) {
+        if (moves < 1) throw new IllegalArgumentException("Mate depth must be >= 1");
+        long start = System.nanoTime();
+        attacker = turn;
+        nodes = 0;
+        nodeLimit = nodeBudget;
+        table.clear();
+
+        Node root = new Node(board.copy(), turn, 2 * moves - 1, null);
+        mid(root, INF, INF);
+
+        lookup(root);
+        int rootPhi = table.lastPhi, rootDelta = table.lastDelta;
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        if (rootPhi == 0) {
+            String move = provingMove(root);
+            ms = (System.nanoTime() - start) / 1_000_000;
+            // proven, but the move could not be recovered within the budget: do not claim a mate
+            return new Result(move != null ? Status.PROVEN : Status.UNKNOWN, move, nodes, ms);
+        }
+        if (rootDelta == 0) return new Result(Status.DISPROVEN, null, nodes, ms);
+        return new Result(Status.UNKNOWN, null, nodes, ms);
+    }
+
+    // expand n until its (phi, delta) reaches one of the thresholds
+    private void mid(Node n, int thPhi, int thDelta) {
+        if (++nodes > nodeLimit) return;
+        List<Node> kids = expand(n);
+        if (kids == null) return; // terminal, already stored
+
+        while (nodes <= nodeLimit) {
+            int phi = INF, delta = 0, delta2 = INF;
+            Node best = null;
+            int bestPhi = 0;
+            for (Node c : kids) {
+                lookup(c);
+                int cPhi = table.lastPhi, cDelta = table.lastDelta;
+                delta = Math.min(INF, delta + cPhi);
+                if (cDelta < phi) {
+                    delta2 = phi;
+                    phi = cDelta;
+                    best = c;
+                    bestPhi = cPhi;
+                } else if (cDelta < delta2) {
+                    delta2 = cDelta;
+                }
+            }
+            store(n, phi, delta);
+            if (phi >= thPhi || delta >= thDelta) return;
+
+            int childThPhi = (int) Math.min(INF, (long) thDelta + bestPhi - delta);
+            int childThDelta = Math.min(thPhi, delta2 == INF ? INF : delta2 + 1);
+            mid(best, childThPhi, childThDelta);
+        }
+    }
+
+    // children of n, or null after storing a solved terminal value
+    private List<Node> expand(Node n) {
+        boolean orNode = n.side == attacker;
+        if (n.remaining == 0) {
+            // out of plies: only an already-mated defender counts
+            boolean mated = !orNode && n.board.isKingInCheck(n.side) && !n.board.hasAnyLegalMove(n.side);
+            storeAttacker(n, mated);
+            return null;
+        }
+        List<String> moves = n.board.generateMoves(n.side);
+
+        if (moves.isEmpty()) {
+            boolean mated = n.board.isKingInCheck(n.side);
+            // proven for the attacker when the defender is mated; everything else is a refutation
+            boolean proven = mated && !orNode;
+            storeAttacker(n, proven);
+            return null;
+        }
+        List<Node> kids = new ArrayList<>(moves.size());
+        List<Node> quiet = new ArrayList<>();
+        for (String m : moves) {
+            Board b = n.board.copy();
+            Board.MoveResult res;
+            try {
+                res = b.applyMove(m, n.side);
+            } catch (IllegalMoveException e) {
+                continue; // generator only yields legal moves
+            }
+            // on the attacker's last ply only checking moves can mate
+            if (orNode && n.remaining == 1 && !res.gaveCheck) continue;
+            Node c = new Node(b, n.side.opposite(), n.remaining - 1, m);
+            // checks first: they are the usual way to force mate
+            if (res.gaveCheck) kids.add(c); else quiet.add(c);
+        }
+        kids.addAll(quiet);
+
+        if (kids.isEmpty()) {
+            storeAttacker(n, false);
+            return null;
+        }
+        return kids;
+    }
+
+    // store a solved node, given from the attacker's point of view
+    private void storeAttacker(Node n, boolean proven) {
+        boolean orNode = n.side == attacker;
+        // OR: phi = pn, delta = dn; AND: phi = dn, delta = pn
+        boolean phiZero = (orNode == proven);
+        if (phiZero) store(n, 0, INF); else store(n, INF, 0);
+    }
+
+    // pick the root child whose delta (attacker pn) is zero; if the table has since evicted it,
+    // re-check each child with a plain table-free search (one more node budget for all of them)
+    private String provingMove(Node root) {
+        List<Node> kids = expandQuiet(root);
+        for (Node c : kids) {
+            lookup(c);
+            if (table.lastDelta == 0) return c.move;
+        }
+        nodeLimit = nodes + nodeBudget;
+        for (Node c : kids) {
+            if (forcesMate(c.board, c.side, c.remaining) && nodes <= nodeLimit) return c.move;
+        }
+        return null;
+    }
+
+    // exhaustive AND/OR check: is the defender mated within 'remaining' plies? (false when over budget)
+    private boolean forcesMate(Board board, Color side, int remaining) {
+        if (++nodes > nodeLimit) return false;
+        boolean orNode = side == attacker;
+        if (remaining == 0) return !orNode && board.isKingInCheck(side) && !board.hasAnyLegalMove(side);
+        List<String> moves = board.generateMoves(side);
+        if (moves.isEmpty()) return !orNode && board.isKingInCheck(side);
+        for (String m : moves) {
+            Board b = board.copy();
+            Board.MoveResult res;
+            try {
+                res = b.applyMove(m, side);
+            } catch (IllegalMoveException e) {
+                continue; // generator only yields legal moves
+            }
+            if (orNode && remaining == 1 && !res.gaveCheck) continue;
+            boolean mates = forcesMate(b, side.opposite(), remaining - 1);
+            if (orNode && mates) return true;
+            if (!orNode && !mates) return false;
+        }
+        return !orNode;
+    }
+
+    // children without touching the table (used after the search)
+    private List<Node> expandQuiet(Node n) {
+        List<Node> kids = new ArrayList<>();
+        for (String m : n.board.generateMoves(n.side)) {
+            Board b = n.board.copy();
+            try {
+                b.applyMove(m, n.side);
+            } catch (IllegalMoveException e) {
+                continue;
+            }
+            kids.add(new Node(b, n.side.opposite(), n.remaining - 1, m));
+        }
+        return kids;
+    }
+
+    // loads n's (phi, delta) into table.lastPhi/lastDelta; unseen nodes start at 1/1
+    private void lookup(Node n) {
+        table.get(n.key, n.remaining);
+    }
+
+    private void store(Node n, int phi, int delta) {
+        table.put(n.key, n.remaining, phi, delta);
+    }
+
+    // mixes the ply budget into the key so the same position at different depths stays apart
+    private static long depthKey(int remaining) {
+        long z = (remaining + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        return z ^ (z >>> 31);
+    }
+
+    // fixed-size proof table; two slots per bucket, solved entries are kept over open ones
+    static final class ProofTable {
+        private final long[] keys;
+        private final int[] depth;
+        private final int[] phi;
+        private final int[] delta;
+        private final int mask;
+        int lastPhi, lastDelta;             // result of the last get(); read into locals right away
+
+        ProofTable(int entries) {
+            int size = Integer.highestOneBit(Math.max(2, entries));
+            keys = new long[size];
+            depth = new int[size];
+            phi = new int[size];
+            delta = new int[size];
+            mask = size - 1;
+            clear();
+        }
+
+        void clear() {
+            java.util.Arrays.fill(depth, -1);
+        }
+
+        // loads (phi, delta) for key at depth d into lastPhi/lastDelta
+        void get(long key, int d) {
+            int i = (int) key & mask & ~1;
+            if (!(depth[i] == d && keys[i] == key)) i++;
+            if (depth[i] == d && keys[i] == key) {
+                lastPhi = phi[i];
+                lastDelta = delta[i];
+            } else {
+                lastPhi = lastDelta = 1;
+            }
+        }
+
+        void put(long key, int d, int ph, int de) {
+            int i = (int) key & mask & ~1;
+            int slot;
+            if (depth[i] == d && keys[i] == key) slot = i;
+            else if (depth[i + 1] == d && keys[i + 1] == key) slot = i + 1;
+            else if (depth[i] < 0) slot = i;
+            else if (depth[i + 1] < 0) slot = i + 1;
+            else if (!solved(i)) slot = i;
+            else if (!solved(i + 1)) slot = i + 1;
+            else slot = i; // both solved: newest wins
+            keys[slot] = key;
+            depth[slot] = d;
+            phi[slot] = ph;
+            delta[slot] = de;
+        }
+
+        private boolean solved(int i) { return phi[i] == 0 || delta[i] == 0; }
+    }
+}
@@ -0,0 +1,225 @@
+package src;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// process-wide counters and latency histograms; off by default, and when off an
+// instrumented call costs one volatile read
+public final class Metrics {
+    private static volatile boolean enabled;
+    private static final List<Counter> COUNTERS = Collections.synchronizedList(new ArrayList<>());
+    private static final List<Histogram> HISTOGRAMS = Collections.synchronizedList(new ArrayList<>());
+
+    // monotonically increasing count
+    public static final class Counter {
+        final String name, help;
+        private final LongAdder n = new LongAdder();
+        Counter(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+        public void inc() { if (enabled) n.increment(); }
+        public long get() { return n.sum(); }
+    }
+
+    // nanosecond latencies in log-linear buckets: exact below 32, then 32 buckets per power
+    // of two (about 3% relative error), the same layout HdrHistogram uses; bucket counts are
+    // striped by thread so search threads recording at once do not share cache lines
+    public static final class Histogram {
+        private static final int SUB_BITS = 5;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (65 - SUB_BITS) * SUB;
+        private static final int STRIPES =
+            Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+
+        final String name, help;
+        // per stripe, allocated on its first record: idle histograms and threads cost nothing
+        private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        // record the time since a Metrics.start() value (0 = recording was off)
+        public void stop(long startNanos) {
+            if (startNanos != 0) record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            stripe().incrementAndGet(index(nanos));
+            total.increment();
+            sum.add(nanos);
+            long m;
+            while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {
+                // lost a race to another new maximum: re-read (rarely taken after warm-up)
+            }
+        }
+
+        public long count() { return total.sum(); }
+        public long max() { return max.get(); }
+        public double mean() { long c = count(); return c == 0 ? 0 : (double) sum.sum() / c; }
+
+        // value at a percentile (0-100), as the upper edge of its bucket; 0 when empty
+        public long percentile(double pct) {
+            long c = count();
+            if (c == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(pct / 100.0 * c));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                for (int s = 0; s < STRIPES; s++) {
+                    AtomicLongArray b = stripes.get(s);
+                    if (b != null) seen += b.get(i);
+                }
+                if (seen >= rank) return Math.min(upperEdge(i), max());
+            }
+            return max();
+        }
+
+        void reset() {
+            for (int s = 0; s < STRIPES; s++) {
+                AtomicLongArray b = stripes.get(s);
+                if (b != null) for (int i = 0; i < BUCKETS; i++) b.set(i, 0);
+            }
+            total.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        // this thread's bucket counts
+        private AtomicLongArray stripe() {
+            int s = (int) Thread.currentThread().getId() & (STRIPES - 1);
+            AtomicLongArray b = stripes.get(s);
+            if (b == null) {
+                stripes.compareAndSet(s, null, new AtomicLongArray(BUCKETS));
+                b = stripes.get(s);
+            }
+            return b;
+        }
+
+        static int index(long v) {
+            if (v < SUB) return (int) v;
+            int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+            return (shift + 1) * SUB + (int) ((v >>> shift) - SUB);
+        }
+
+        static long upperEdge(int i) {
+            if (i < 2 * SUB) return i;
+            int shift = i / SUB - 1;
+            return (((long) (i % SUB) + SUB + 1) << shift) - 1;
+        }
+    }
+
+    public static final Counter COMMANDS = counter("commands", "Console commands handled");
+    public static final Counter MOVES = counter("moves", "Moves applied to a board");
+
+    public static final Histogram IS_LEGAL_MOVE = histogram("board_is_legal_move", "Board.isLegalMove");
+    public static final Histogram BOARD_COPY = histogram("board_copy", "Board.copy");
+    public static final Histogram HAS_ANY_LEGAL_MOVE = histogram("board_has_any_legal_move", "Board.hasAnyLegalMove");
+    public static final Histogram MOVE = histogram("board_move", "Board.move (validation and application)");
+    public static final Histogram RENDER = histogram("board_render", "Rendering the board to the console");
+    public static final Histogram COMMAND = histogram("game_command", "Game command handling, end to end");
+
+    private Metrics() {}
+
+    public static Counter counter(String name, String help) {
+        Counter c = new Counter(name, help);
+        COUNTERS.add(c);
+        return c;
+    }
+
+    public static Histogram histogram(String name, String help) {
+        Histogram h = new Histogram(name, help);
+        HISTOGRAMS.add(h);
+        return h;
+    }
+
+    public static boolean isEnabled() { return enabled; }
+
+    public static void setEnabled(boolean on) { enabled = on; }
+
+    // timestamp for Histogram.stop(), or 0 when recording is off
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void reset() {
+        synchronized (COUNTERS) { for (Counter c : COUNTERS) c.n.reset(); }
+        synchronized (HISTOGRAMS) { for (Histogram h : HISTOGRAMS) h.reset(); }
+    }
+
+    // table for the console 'stats' command (latencies in microseconds)
+    public static String report() {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("Metrics ").append(enabled ? "on" : "off").append('\n');
+        synchronized (COUNTERS) {
+            for (Counter c : COUNTERS) sb.append(String.format("  %-26s %12d%n", c.name, c.get()));
+        }
+        sb.append(String.format("  %-26s %10s %9s %9s %9s %9s %9s%n", "latency (us)", "count", "mean", "p50", "p99", "p99.9", "max"));
+        synchronized (HISTOGRAMS) {
+            for (Histogram h : HISTOGRAMS) {
+                sb.append(String.format(Locale.ROOT, "  %-26s %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n", h.name, h.count(),
+                    h.mean() / 1e3, h.percentile(50) / 1e3, h.percentile(99) / 1e3, h.percentile(99.9) / 1e3, h.max() / 1e3));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Prometheus text exposition: counters as *_total, histograms as summaries in seconds
+    public static String prometheus() {
+        StringBuilder sb = new StringBuilder(2048);
+        synchronized (COUNTERS) {
+            for (Counter c : COUNTERS) {
+                String n = "chess_" + c.name + "_total";
+                sb.append("# HELP ").append(n).append(' ').append(c.help).append('\n');
+                sb.append("# TYPE ").append(n).append(" counter\n");
+                sb.append(n).append(' ').append(c.get()).append('\n');
+            }
+        }
+        synchronized (HISTOGRAMS) {
+            for (Histogram h : HISTOGRAMS) {
+                String n = "chess_" + h.name + "_seconds";
+                sb.append("# HELP ").append(n).append(' ').append(h.help).append('\n');
+                sb.append("# TYPE ").append(n).append(" summary\n");
+                for (String q : new String[] {"0.5", "0.9", "0.99", "0.999"}) {
+                    sb.append(n).append("{quantile=\"").append(q).append("\"} ")
+                      .append(seconds(h.percentile(Double.parseDouble(q) * 100))).append('\n');
+                }
+                sb.append(n).append("_sum ").append(seconds(h.sum.sum())).append('\n');
+                sb.append(n).append("_count ").append(h.count()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    // write the Prometheus text to 'file' atomically (scrapers never see half a file)
+    public static void writePrometheus(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, ".metrics", ".tmp");
+        try {
+            Files.writeString(tmp, prometheus(), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,26 @@
+package src;
+
+// packs coordinate moves into 16 bits: from (6) | to (6) | promotion (3)
+public final class MoveCodec {
+    private static final String PROMOS = " qrbn"; // index 0 = no promotion
+
+    private MoveCodec() {}
+
+    // "e7e8q" -> packed short
+    public static short encode(String move) {
+        Position from = Position.fromAlgebraic(move.substring(0, 2));
+        Position to = Position.fromAlgebraic(move.substring(2, 4));
+        int promo = move.length() == 5 ? PROMOS.indexOf(Character.toLowerCase(move.charAt(4))) : 0;
+        if (promo < 0) throw new IllegalArgumentException("Bad promotion: " + move);
+        return (short) (square(from) | square(to) << 6 | promo << 12);
+    }
+
+    // packed short -> "e7e8q"
+    public static String decode(short code) {
+        int from = code & 63, to = (code >>> 6) & 63, promo = (code >>> 12) & 7;
+        String s = new Position(from & 7, from >>> 3).toString() + new Position(to & 7, to >>> 3);
+        return promo == 0 ? s : s + PROMOS.charAt(promo);
+    }
+
+    private static int square(Position p) { return p.getY() * 8 + p.getX(); }
+}
@@ -0,0 +1,266 @@
+package src;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// streams PGN collections into an OpeningIndex: split -> parallel replay -> sorted runs -> merge
+public final class OpeningImporter {
+    private static final String END = new String("<end>"); // poison pill, compared by identity
+
+    // totals for one import
+    public static final class Stats {
+        public final long games, skipped, records, millis;
+        Stats(long games, long skipped, long records, long millis) {
+            this.games = games;
+            this.skipped = skipped;
+            this.records = records;
+            this.millis = millis;
+        }
+    }
+
+    // one (position, move) with its results
+    private static final class Rec {
+        final long key;
+        final short move;
+        int white, draws, black;
+        Rec(long key, short move, int white, int draws, int black) {
+            this.key = key;
+            this.move = move;
+            this.white = white;
+            this.draws = draws;
+            this.black = black;
+        }
+    }
+
+    // head record of one run during the merge
+    private static final class Cursor {
+        Rec head;
+        final DataInputStream in;
+        Cursor(Rec head, DataInputStream in) {
+            this.head = head;
+            this.in = in;
+        }
+    }
+
+    private static final Comparator<Rec> ORDER = (a, b) -> {
+        int c = Long.compare(a.key, b.key);
+        return c != 0 ? c : Short.compare(a.move, b.move);
+    };
+
+    private final int threads;
+    private final int maxPly;
+    private final int runSize;
+
+    // runSize = records a worker buffers before spilling a sorted run to disk
+    public OpeningImporter(int threads, int maxPly, int runSize) {
+        if (threads < 1 || maxPly < 1 || runSize < 1) throw new IllegalArgumentException("threads, maxPly and runSize must be >= 1");
+        this.threads = threads;
+        this.maxPly = maxPly;
+        this.runSize = runSize;
+    }
+
+    public Stats importFiles(List<Path> pgnFiles, Path indexFile) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path tmp = Files.createTempDirectory(indexFile.toAbsolutePath().getParent(), "explorer-runs");
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(threads * 64);
+        List<Path> runs = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong games = new AtomicLong(), skipped = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> { work(queue, tmp, runs, games, skipped); return null; }));
+            }
+            // on any failure here, shutdownNow() below interrupts the workers waiting in take()
+            for (Path f : pgnFiles) {
+                try (BufferedReader in = Files.newBufferedReader(f, StandardCharsets.UTF_8)) {
+                    String text;
+                    while ((text = Pgn.nextGame(in)) != null) hand(queue, text, workers);
+                }
+            }
+            for (int i = 0; i < threads; i++) hand(queue, END, workers);
+            for (Future<?> w : workers) join(w);
+            long records = merge(runs, indexFile);
+            return new Stats(games.get(), skipped.get(), records, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdownNow();
+            for (Path r : runs) Files.deleteIfExists(r);
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // queue an item for the workers; while the queue stays full, check that they are still
+    // alive, so a worker that died (e.g. disk full in spill) fails the import instead of hanging it
+    static void hand(BlockingQueue<String> queue, String item, List<Future<?>> workers)
+            throws IOException, InterruptedException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<?> w : workers) {
+                if (!w.isDone()) continue;
+                join(w);
+                throw new IOException("Import worker stopped before the end of input");
+            }
+        }
+    }
+
+    private static void join(Future<?> worker) throws IOException, InterruptedException {
+        try {
+            worker.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Import worker failed", e.getCause());
+        }
+    }
+
+    // worker: replay games into a private buffer, spilling sorted runs
+    private void work(BlockingQueue<String> queue, Path tmp, List<Path> runs,
+                      AtomicLong games, AtomicLong skipped) throws IOException, InterruptedException {
+        List<Rec> buffer = new ArrayList<>();
+        List<Rec> game = new ArrayList<>();
+        while (true) {
+            String text = queue.take();
+            if (text == END) break;
+            game.clear();
+            if (replay(Pgn.parse(text), game)) {
+                buffer.addAll(game);
+                games.incrementAndGet();
+            } else {
+                skipped.incrementAndGet();
+            }
+            if (buffer.size() >= runSize) {
+                runs.add(spill(buffer, tmp));
+                buffer.clear();
+            }
+        }
+        if (!buffer.isEmpty()) runs.add(spill(buffer, tmp));
+    }
+
+    // positions of one game up to maxPly; false if unfinished or unreadable
+    private boolean replay(Pgn.Record g, List<Rec> out) {
+        int w = 0, d = 0, b = 0;
+        switch (g.result) {
+            case "1-0": w = 1; break;
+            case "0-1": b = 1; break;
+            case "1/2-1/2": d = 1; break;
+            default: return false;
+        }
+        Board board;
+        Color turn;
+        try {
+            Fen.Setup setup = Fen.parse(g.tags.getOrDefault("FEN", Fen.START));
+            board = setup.board;
+            turn = setup.turn;
+            for (int ply = 0; ply < g.sanMoves.size() && ply < maxPly; ply++) {
+                String move = San.parse(board, turn, g.sanMoves.get(ply));
+                out.add(new Rec(board.positionKey(turn), MoveCodec.encode(move), w, d, b));
+                board.applyMove(move, turn);
+                turn = turn.opposite();
+            }
+        } catch (IllegalArgumentException | IllegalMoveException e) {
+            return false;
+        }
+        return true;
+    }
+
+    // sort + aggregate a buffer and write it as a run file
+    private static Path spill(List<Rec> buffer, Path tmp) throws IOException {
+        buffer.sort(ORDER);
+        Path run = Files.createTempFile(tmp, "run", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            Rec acc = null;
+            for (Rec r : buffer) {
+                if (acc != null && ORDER.compare(acc, r) == 0) {
+                    acc.white += r.white; acc.draws += r.draws; acc.black += r.black;
+                    continue;
+                }
+                if (acc != null) write(out, acc);
+                acc = new Rec(r.key, r.move, r.white, r.draws, r.black);
+            }
+            if (acc != null) write(out, acc);
+        }
+        return run;
+    }
+
+    // k-way merge of sorted runs into the final index; returns the record count
+    private static long merge(List<Path> runs, Path indexFile) throws IOException {
+        List<DataInputStream> ins = new ArrayList<>();
+        long count = 0;
+        try {
+            PriorityQueue<Cursor> heap = new PriorityQueue<>((a, b) -> ORDER.compare(a.head, b.head));
+            for (Path r : runs) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(r), 1 << 16));
+                ins.add(in);
+                Rec first = read(in);
+                if (first != null) heap.add(new Cursor(first, in));
+            }
+            try (OutputStream os = Files.newOutputStream(indexFile);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+                out.writeLong(OpeningIndex.MAGIC);
+                out.writeLong(0); // patched below
+                Rec acc = null;
+                while (!heap.isEmpty()) {
+                    Cursor top = heap.poll();
+                    Rec r = top.head;
+                    top.head = read(top.in);
+                    if (top.head != null) heap.add(top);
+                    if (acc != null && ORDER.compare(acc, r) == 0) {
+                        acc.white += r.white; acc.draws += r.draws; acc.black += r.black;
+                        continue;
+                    }
+                    if (acc != null) { write(out, acc); count++; }
+                    acc = r;
+                }
+                if (acc != null) { write(out, acc); count++; }
+            }
+        } finally {
+            for (DataInputStream in : ins) in.close();
+        }
+        try (FileChannel ch = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            ByteBuffer n = ByteBuffer.allocate(8).putLong(count);
+            n.flip();
+            ch.write(n, 8);
+        }
+        return count;
+    }
+
+    private static void write(DataOutputStream out, Rec r) throws IOException {
+        out.writeLong(r.key);
+        out.writeShort(r.move);
+        out.writeInt(r.white);
+        out.writeInt(r.draws);
+        out.writeInt(r.black);
+    }
+
+    private static Rec read(DataInputStream in) throws IOException {
+        long key;
+        try {
+            key = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        return new Rec(key, in.readShort(), in.readInt(), in.readInt(), in.readInt());
+    }
+}
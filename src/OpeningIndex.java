@@ -0,0 +1,101 @@
+package src;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// read-only, memory-mapped explorer index: records sorted by (position key, move)
+public final class OpeningIndex implements AutoCloseable {
+    static final long MAGIC = 0x4343455850310000L;   // "CCEXP1"
+    static final int HEADER_BYTES = 16;              // magic + record count
+    static final int RECORD_BYTES = 22;              // key(8) move(2) white(4) draws(4) black(4)
+    private static final int PER_SEGMENT = (1 << 30) / RECORD_BYTES;
+
+    // how one move from a position has scored
+    public static final class MoveStats {
+        public final String move;
+        public final int whiteWins, draws, blackWins;
+        MoveStats(String move, int whiteWins, int draws, int blackWins) {
+            this.move = move;
+            this.whiteWins = whiteWins;
+            this.draws = draws;
+            this.blackWins = blackWins;
+        }
+        public long games() { return (long) whiteWins + draws + blackWins; }
+    }
+
+    private final FileChannel ch;
+    private final MappedByteBuffer[] segments;
+    private final long count;
+
+    private OpeningIndex(FileChannel ch, MappedByteBuffer[] segments, long count) {
+        this.ch = ch;
+        this.segments = segments;
+        this.count = count;
+    }
+
+    public static OpeningIndex open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+            while (head.hasRemaining() && ch.read(head, head.position()) > 0) { }
+            head.flip();
+            if (head.remaining() < HEADER_BYTES || head.getLong() != MAGIC) throw new IOException("Not an explorer index: " + file);
+            long count = head.getLong();
+            if (ch.size() < HEADER_BYTES + count * RECORD_BYTES) throw new IOException("Truncated explorer index: " + file);
+
+            int n = (int) ((count + PER_SEGMENT - 1) / PER_SEGMENT);
+            MappedByteBuffer[] segs = new MappedByteBuffer[n];
+            for (int i = 0; i < n; i++) {
+                long first = (long) i * PER_SEGMENT;
+                long records = Math.min(PER_SEGMENT, count - first);
+                segs[i] = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * RECORD_BYTES, records * RECORD_BYTES);
+            }
+            return new OpeningIndex(ch, segs, count);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    // number of (position, move) records
+    public long size() { return count; }
+
+    // moves played from this position, most popular first; safe to call from many threads
+    public List<MoveStats> query(Board board, Color turn) {
+        return query(board.positionKey(turn));
+    }
+
+    public List<MoveStats> query(long key) {
+        List<MoveStats> out = new ArrayList<>();
+        for (long i = lowerBound(key); i < count && keyAt(i) == key; i++) {
+            ByteBuffer seg = segments[(int) (i / PER_SEGMENT)];
+            int off = (int) (i % PER_SEGMENT) * RECORD_BYTES;
+            out.add(new MoveStats(MoveCodec.decode(seg.getShort(off + 8)),
+                seg.getInt(off + 10), seg.getInt(off + 14), seg.getInt(off + 18)));
+        }
+        out.sort((a, b) -> Long.compare(b.games(), a.games()));
+        return out;
+    }
+
+    // first record whose key is >= key (signed order, as written by the importer)
+    private long lowerBound(long key) {
+        long lo = 0, hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (keyAt(mid) < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private long keyAt(long i) {
+        return segments[(int) (i / PER_SEGMENT)].getLong((int) (i % PER_SEGMENT) * RECORD_BYTES);
+    }
+
+    @Override public void close() throws IOException { ch.close(); }
+}
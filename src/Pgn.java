@@ -0,0 +1,138 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// PGN text for finished games, and reading game collections back
+public final class Pgn {
+
+    // one parsed game: tags, SAN mainline and result token
+    public static final class Record {
+        public final Map<String, String> tags;
+        public final List<String> sanMoves;
+        public final String result;
+        Record(Map<String, String> tags, List<String> sanMoves, String result) {
+            this.tags = tags;
+            this.sanMoves = sanMoves;
+            this.result = result;
+        }
+    }
+
+    private Pgn() {}
+
+    // next game's raw text from a collection, or null at end of input
+    public static String nextGame(BufferedReader in) throws IOException {
+        StringBuilder sb = new StringBuilder(1024);
+        boolean movetext = false;
+        String line;
+        while (true) {
+            in.mark(8192);
+            line = in.readLine();
+            if (line == null) break;
+            String t = line.trim();
+            if (t.startsWith("[") && movetext) {
+                in.reset(); // first tag of the following game
+                break;
+            }
+            if (!t.isEmpty() && !t.startsWith("[") && !t.startsWith("%")) movetext = true;
+            sb.append(line).append('\n');
+        }
+        return sb.toString().trim().isEmpty() ? null : sb.toString();
+    }
+
+    // tags + mainline; comments, variations, NAGs and move numbers are skipped
+    public static Record parse(String text) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        String result = "*";
+        int i = 0, n = text.length(), depth = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (depth > 0) {
+                if (c == '(') depth++;
+                else if (c == ')') depth--;
+                i++;
+            } else if (c == '[') {
+                int end = text.indexOf(']', i);
+                if (end < 0) break;
+                String tag = text.substring(i + 1, end).trim();
+                int q = tag.indexOf('"');
+                if (q > 0 && tag.endsWith("\"")) {
+                    tags.put(tag.substring(0, q).trim(), tag.substring(q + 1, tag.length() - 1).replace("\\\"", "\""));
+                }
+                i = end + 1;
+            } else if (c == '{') {
+                int end = text.indexOf('}', i);
+                i = end < 0 ? n : end + 1;
+            } else if (c == ';') {
+                int end = text.indexOf('\n', i);
+                i = end < 0 ? n : end + 1;
+            } else if (c == '(') {
+                depth = 1;
+                i++;
+            } else if (Character.isWhitespace(c) || c == ')') {
+                i++;
+            } else {
+                int end = i;
+                while (end < n && !Character.isWhitespace(text.charAt(end)) && "{;()[".indexOf(text.charAt(end)) < 0) end++;
+                String tok = text.substring(i, end);
+                i = end;
+                if (tok.equals("1-0") || tok.equals("0-1") || tok.equals("1/2-1/2") || tok.equals("*")) {
+                    result = tok;
+                    continue;
+                }
+                if (tok.startsWith("$")) continue;
+                int dot = tok.lastIndexOf('.');
+                if (dot >= 0) tok = tok.substring(dot + 1);  // "12." / "12...e5" / "1.e4"
+                if (!tok.isEmpty() && !Character.isDigit(tok.charAt(0))) moves.add(tok);
+            }
+        }
+        if (result.equals("*") && tags.containsKey("Result")) result = tags.get("Result");
+        return new Record(tags, moves, result);
+    }
+
+    // tags in insertion order, SAN moves from 'firstTurn', result "1-0" / "0-1" / "1/2-1/2" / "*"
+    public static String format(Map<String, String> tags, Color firstTurn, List<String> sanMoves, String result) {
+        StringBuilder sb = new StringBuilder(256 + sanMoves.size() * 6);
+        for (Map.Entry<String, String> t : tags.entrySet()) {
+            sb.append('[').append(t.getKey()).append(" \"")
+              .append(t.getValue().replace("\\", "\\\\").replace("\"", "\\\""))
+              .append("\"]\n");
+        }
+        sb.append('\n');
+
+        int lineStart = sb.length();
+        int moveNo = 1;
+        boolean white = firstTurn == Color.WHITE;
+        for (int i = 0; i < sanMoves.size(); i++) {
+            String token;
+            if (white) token = moveNo + ". " + sanMoves.get(i);
+            else if (i == 0) token = moveNo + "... " + sanMoves.get(i);
+            else token = sanMoves.get(i);
+            if (!white) moveNo++;
+            white = !white;
+            lineStart = appendWrapped(sb, token, lineStart);
+        }
+        appendWrapped(sb, result, lineStart);
+        sb.append("\n\n");
+        return sb.toString();
+    }
+
+    // keep movetext lines under 80 columns
+    private static int appendWrapped(StringBuilder sb, String token, int lineStart) {
+        if (sb.length() > lineStart) {
+            if (sb.length() - lineStart + 1 + token.length() > 79) {
+                sb.append('\n');
+                lineStart = sb.length();
+            } else {
+                sb.append(' ');
+            }
+        }
+        sb.append(token);
+        return lineStart;
+    }
+}
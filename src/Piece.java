@@ -1,18 +1,28 @@
 package src;
 
+// immutable; boards share the 12 instances from of() (castling rights live in Board)
 abstract class Piece {
     private final Color color;
-    private boolean moved;
 
     // color at construction
     protected Piece(Color color) { this.color = color; }
 
-    public Color getColor() { return color; }
+    // shared instance per type/color, indexed [color][type]
+    private static final Piece[][] SHARED = new Piece[2][];
+    static {
+        for (Color c : Color.values()) {
+            SHARED[c.ordinal()] = new Piece[] {
+                new King(c), new Queen(c), new Rook(c), new Bishop(c), new Knight(c), new Pawn(c)
+            };
+        }
+    }
 
-    public boolean hasMoved() { return moved; }
+    // the flyweight for a type/color
+    static Piece of(PieceType type, Color color) {
+        return SHARED[color.ordinal()][type.ordinal()];
+    }
 
-    // mark as moved (castling / pawn double-step)
-    public void setMoved() { moved = true; }
+    public Color getColor() { return color; }
 
     // type info (used for copy/promotion)
     abstract PieceType getType();
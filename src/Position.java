@@ -4,12 +4,23 @@ public final class Position {
     private final int x; // file 0..7 (a..h)
     private final int y; // rank 0..7 (1..8)
 
+    // one shared instance per on-board square (index x * 8 + y)
+    private static final Position[] SQUARES = new Position[64];
+    static {
+        for (int i = 0; i < 64; i++) SQUARES[i] = new Position(i >> 3, i & 7);
+    }
+
     // raw coords
     public Position(int x, int y) {
         this.x = x;
         this.y = y;
     }
 
+    // shared instance for a square; off-board coordinates get a fresh object
+    public static Position of(int x, int y) {
+        return (x >= 0 && x < 8 && y >= 0 && y < 8) ? SQUARES[x * 8 + y] : new Position(x, y);
+    }
+
     // parse "e2" -> (4,1)
     public static Position fromAlgebraic(String algebraic) {
         if (algebraic == null || algebraic.length() != 2) {
@@ -22,7 +33,7 @@ public final class Position {
         if (x < 0 || x > 7 || y < 0 || y > 7) {
             throw new IllegalArgumentException("Bad square: " + algebraic);
         }
-        return new Position(x, y);
+        return of(x, y);
     }
 
     public int getX() { return x; }
@@ -30,7 +41,7 @@ public final class Position {
 
     // back to "e2"
     @Override public String toString() {
-        return String.valueOf((char) ('a' + x)) + (char) ('1' + y);
+        return new String(new char[] {(char) ('a' + x), (char) ('1' + y)});
     }
 
     @Override public boolean equals(Object o) {
@@ -0,0 +1,144 @@
+package src;
+
+import java.util.List;
+
+// standard algebraic notation (Nf3, exd5, O-O, e8=Q+) <-> coordinate moves (g1f3)
+public final class San {
+    private San() {}
+
+    // coordinate move -> SAN, including +/# suffix
+    public static String toSan(Board board, Color turn, String move) {
+        return toSan(board, turn, move, board.generateMoves(turn));
+    }
+
+    // same, reusing an already generated legal move list
+    static String toSan(Board board, Color turn, String move, List<String> legal) {
+        Position from = Position.fromAlgebraic(move.substring(0, 2));
+        Position to = Position.fromAlgebraic(move.substring(2, 4));
+        Piece p = board.get(from);
+        if (p == null) throw new IllegalArgumentException("No piece on " + from);
+
+        StringBuilder sb = new StringBuilder(8);
+        if (p.getType() == PieceType.KING && Math.abs(to.getX() - from.getX()) == 2) {
+            sb.append(to.getX() == 6 ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = board.get(to) != null
+                || (p.getType() == PieceType.PAWN && from.getX() != to.getX());
+            if (p.getType() == PieceType.PAWN) {
+                if (capture) sb.append((char) ('a' + from.getX()));
+            } else {
+                sb.append(Character.toUpperCase(p.symbol()));
+                sb.append(disambiguation(board, move, p, legal));
+            }
+            if (capture) sb.append('x');
+            sb.append(to);
+            if (move.length() == 5) sb.append('=').append(Character.toUpperCase(move.charAt(4)));
+        }
+
+        Board after = board.copy();
+        try {
+            after.applyMove(move, turn);
+        } catch (IllegalMoveException e) {
+            throw new IllegalArgumentException("Illegal move: " + move);
+        }
+        Color opp = turn.opposite();
+        if (after.isKingInCheck(opp)) sb.append(after.hasAnyLegalMove(opp) ? '+' : '#');
+        return sb.toString();
+    }
+
+    // SAN -> coordinate move for the side to move; throws if unknown or illegal
+    public static String parse(Board board, Color turn, String san) {
+        String s = normalize(san);
+        int y = (turn == Color.WHITE) ? 0 : 7;
+        if (s.equals("O-O") || s.equals("O-O-O")) {
+            String m = "e" + (y + 1) + (s.length() == 3 ? "g" : "c") + (y + 1);
+            if (board.isLegalMove(new Position(4, y), Position.fromAlgebraic(m.substring(2)), turn)) return m;
+            throw new IllegalArgumentException("Illegal or unknown move: " + san);
+        }
+
+        // [piece][from file][from rank][x]dest[=promo]
+        PieceType type = PieceType.PAWN;
+        int i = 0;
+        if (!s.isEmpty() && "KQRBN".indexOf(s.charAt(0)) >= 0) {
+            type = typeOf(s.charAt(0));
+            i = 1;
+        }
+        char promo = 0;
+        int eq = s.indexOf('=');
+        String body = s;
+        if (eq >= 0 && eq + 1 < s.length()) {
+            promo = Character.toLowerCase(s.charAt(eq + 1));
+            body = s.substring(0, eq);
+        } else if (type == PieceType.PAWN && s.length() > 2 && "QRBN".indexOf(s.charAt(s.length() - 1)) >= 0) {
+            promo = Character.toLowerCase(s.charAt(s.length() - 1)); // "e8Q"
+            body = s.substring(0, s.length() - 1);
+        }
+        if (body.length() < i + 2) throw new IllegalArgumentException("Illegal or unknown move: " + san);
+        Position to;
+        try {
+            to = Position.fromAlgebraic(body.substring(body.length() - 2));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Illegal or unknown move: " + san);
+        }
+        String hint = body.substring(i, body.length() - 2).replace("x", "");
+        int fileHint = -1, rankHint = -1;
+        for (char c : hint.toCharArray()) {
+            if (c >= 'a' && c <= 'h') fileHint = c - 'a';
+            else if (c >= '1' && c <= '8') rankHint = c - '1';
+            else throw new IllegalArgumentException("Illegal or unknown move: " + san);
+        }
+
+        String found = null;
+        for (int x = 0; x < 8; x++) for (int yy = 0; yy < 8; yy++) {
+            if ((fileHint >= 0 && x != fileHint) || (rankHint >= 0 && yy != rankHint)) continue;
+            Piece p = board.get(x, yy);
+            if (p == null || p.getColor() != turn || p.getType() != type) continue;
+            Position from = new Position(x, yy);
+            if (type == PieceType.KING && Math.abs(to.getX() - x) == 2) continue; // castling is spelled O-O
+            if (!board.isLegalMove(from, to, turn)) continue;
+            if (found != null) throw new IllegalArgumentException("Ambiguous move: " + san);
+            found = from.toString() + to;
+        }
+        if (found == null) throw new IllegalArgumentException("Illegal or unknown move: " + san);
+        boolean promoting = type == PieceType.PAWN && (to.getY() == 0 || to.getY() == 7);
+        if (promoting) return found + (promo == 0 ? 'q' : promo);
+        if (promo != 0) throw new IllegalArgumentException("Illegal or unknown move: " + san);
+        return found;
+    }
+
+    private static PieceType typeOf(char c) {
+        switch (c) {
+            case 'K': return PieceType.KING;
+            case 'Q': return PieceType.QUEEN;
+            case 'R': return PieceType.ROOK;
+            case 'B': return PieceType.BISHOP;
+            default:  return PieceType.KNIGHT;
+        }
+    }
+
+    // drop check marks / annotations and accept 0-0 for O-O
+    private static String normalize(String san) {
+        String s = san.trim().replace('0', 'O');
+        int end = s.length();
+        while (end > 0 && "+#!?".indexOf(s.charAt(end - 1)) >= 0) end--;
+        return s.substring(0, end);
+    }
+
+    // file, rank or square needed to tell same-type pieces apart
+    private static String disambiguation(Board board, String move, Piece p, List<String> legal) {
+        String from = move.substring(0, 2), to = move.substring(2, 4);
+        boolean clash = false, sameFile = false, sameRank = false;
+        for (String m : legal) {
+            if (m.startsWith(from) || !m.substring(2, 4).equals(to)) continue;
+            Piece other = board.get(Position.fromAlgebraic(m.substring(0, 2)));
+            if (other == null || other.getType() != p.getType()) continue;
+            clash = true;
+            if (m.charAt(0) == from.charAt(0)) sameFile = true;
+            if (m.charAt(1) == from.charAt(1)) sameRank = true;
+        }
+        if (!clash) return "";
+        if (!sameFile) return from.substring(0, 1);
+        if (!sameRank) return from.substring(1, 2);
+        return from;
+    }
+}
@@ -0,0 +1,322 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// iterative-deepening alpha-beta search over Board (one instance per thread)
+public class Search {
+    public static final int MATE = 100_000;
+    public static final int MAX_DEPTH = 64;
+    private static final int INF = MATE + 1;
+    private static final int QS_DEPTH = 4;        // capture plies searched past the horizon
+    private static final int CHECK_EVERY = 256;   // nodes between limit checks (bounds deadline overshoot)
+    private static final int STABLE_ITERATIONS = 3; // same best move this often -> stop early
+
+    // what to search for: any limit <= 0 is ignored
+    public static final class Limits {
+        public final int depth;
+        public final long nodes;
+        public final long millis;      // hard deadline
+        public final long softMillis;  // no new iteration after this (scaled by best-move stability)
+        public Limits(int depth, long nodes, long millis) {
+            this(depth, nodes, millis, 0);
+        }
+        public Limits(int depth, long nodes, long millis, long softMillis) {
+            this.depth = depth;
+            this.nodes = nodes;
+            this.millis = millis;
+            this.softMillis = softMillis;
+        }
+        public static Limits depth(int d)    { return new Limits(d, 0, 0); }
+        public static Limits nodes(long n)   { return new Limits(0, n, 0); }
+        public static Limits millis(long ms) { return new Limits(0, 0, ms); }
+        public static Limits timed(long softMs, long hardMs) { return new Limits(0, 0, hardMs, softMs); }
+    }
+
+    // snapshot after a completed iteration (and the final answer)
+    public static final class Info {
+        public final int depth;
+        public final int score;       // centipawns for the side to move
+        public final long nodes;
+        public final long millis;
+        public final List<String> pv;
+        Info(int depth, int score, long nodes, long millis, List<String> pv) {
+            this.depth = depth;
+            this.score = score;
+            this.nodes = nodes;
+            this.millis = millis;
+            this.pv = pv;
+        }
+        public String bestMove() { return pv.isEmpty() ? null : pv.get(0); }
+        public long nps() { return millis == 0 ? nodes * 1000 : nodes * 1000 / millis; }
+    }
+
+    // called after each finished iteration
+    public interface Listener {
+        void onIteration(Info info);
+    }
+
+    // called after each finished multi-PV iteration, best line first
+    public interface MultiPvListener {
+        void onIteration(List<Info> lines);
+    }
+
+    private final TranspositionTable tt;
+    private volatile boolean stopRequested;
+    private long nodes;
+    // limits may be tightened from another thread by ponderhit()
+    private volatile long nodeLimit;
+    private volatile long deadline;
+    private volatile int maxDepth;
+    private volatile int completedDepth;
+    private volatile long softMillis;
+    private volatile long startNanos;
+    private boolean aborted;
+    private List<String> rootExcluded = List.of(); // root moves skipped while finding the next PV
+
+    public Search() { this(new TranspositionTable(1 << 18)); }
+
+    public Search(TranspositionTable tt) { this.tt = tt; }
+
+    // forget stored results, so the next search does not depend on what was searched before
+    public void clearTable() { tt.clear(); }
+
+    // ask a running search to return as soon as possible (any thread)
+    public void stop() { stopRequested = true; }
+
+    // turn a running unlimited (ponder) search into a normal one; time already spent counts
+    public void ponderhit(Limits limits) {
+        if (limits.nodes > 0) nodeLimit = limits.nodes;
+        if (limits.millis > 0) deadline = startNanos + limits.millis * 1_000_000;
+        if (limits.softMillis > 0) softMillis = limits.softMillis;
+        if (limits.depth > 0) {
+            maxDepth = Math.min(limits.depth, MAX_DEPTH);
+            if (completedDepth >= maxDepth) stop();
+        }
+        if (limits.depth <= 0 && limits.nodes <= 0 && limits.millis <= 0 && limits.softMillis <= 0) stop();
+    }
+
+    public Info search(Board board, Color turn, Limits limits) {
+        return search(board, turn, limits, null);
+    }
+
+    // iterative deepening until a limit hits; returns the last completed iteration
+    public Info search(Board board, Color turn, Limits limits, Listener listener) {
+        long start = begin(limits);
+        rootExcluded = List.of();
+        Info best = null;
+        int stable = 0;
+        for (int d = 1; d <= maxDepth; d++) {
+            List<String> pv = new ArrayList<>();
+            int score = negamax(board, turn, d, -INF, INF, 0, pv);
+            if (aborted) break;
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            String previous = best == null ? null : best.bestMove();
+            best = new Info(d, score, nodes, ms, Collections.unmodifiableList(pv));
+            completedDepth = d;
+            if (listener != null) listener.onIteration(best);
+            if (pv.isEmpty() || Math.abs(score) >= MATE - MAX_DEPTH) break; // no moves, or mate found
+
+            // soft deadline: stop sooner while the best move holds, allow more when it just changed
+            stable = pv.get(0).equals(previous) ? stable + 1 : 0;
+            long soft = softMillis;
+            if (soft > 0) {
+                double scale = stable >= STABLE_ITERATIONS ? 0.5 : (stable == 0 && d > 1) ? 1.5 : 1.0;
+                if (ms >= soft * scale) break;
+            }
+        }
+        if (best == null) best = fallback(board, turn, start);
+        return best;
+    }
+
+    // the best 'lines' root moves per iteration: each line re-searches the root with the
+    // earlier lines' first moves excluded; returns the last fully completed iteration
+    public List<Info> searchMultiPv(Board board, Color turn, int lines, Limits limits, MultiPvListener listener) {
+        if (lines < 1) throw new IllegalArgumentException("lines must be >= 1");
+        long start = begin(limits);
+        List<Info> last = List.of();
+        try {
+            lines = Math.min(lines, board.generateMoves(turn).size());
+            for (int d = 1; d <= maxDepth && lines > 0; d++) {
+                List<Info> current = new ArrayList<>(lines);
+                List<String> excluded = new ArrayList<>(lines);
+                for (int k = 0; k < lines; k++) {
+                    rootExcluded = excluded;
+                    List<String> pv = new ArrayList<>();
+                    int score = negamax(board, turn, d, -INF, INF, 0, pv);
+                    if (aborted || pv.isEmpty()) break;
+                    long ms = (System.nanoTime() - start) / 1_000_000;
+                    current.add(new Info(d, score, nodes, ms, Collections.unmodifiableList(pv)));
+                    excluded.add(pv.get(0));
+                }
+                if (aborted) break;
+                last = Collections.unmodifiableList(current);
+                completedDepth = d;
+                if (listener != null) listener.onIteration(last);
+            }
+        } finally {
+            rootExcluded = List.of();
+        }
+        return last;
+    }
+
+    // nodes visited by the current/last search
+    public long nodes() { return nodes; }
+
+    // reset counters and arm the limits for a new search; returns the start time
+    private long begin(Limits limits) {
+        long start = System.nanoTime();
+        startNanos = start;
+        stopRequested = false;
+        aborted = false;
+        nodes = 0;
+        completedDepth = 0;
+        nodeLimit = limits.nodes > 0 ? limits.nodes : Long.MAX_VALUE;
+        deadline = limits.millis > 0 ? start + limits.millis * 1_000_000 : Long.MAX_VALUE;
+        maxDepth = limits.depth > 0 ? Math.min(limits.depth, MAX_DEPTH) : MAX_DEPTH;
+        softMillis = limits.softMillis;
+        return start;
+    }
+
+    // aborted before depth 1 finished: any legal move beats none
+    private Info fallback(Board board, Color turn, long start) {
+        List<String> moves = board.generateMoves(turn);
+        List<String> pv = moves.isEmpty() ? List.of() : List.of(moves.get(0));
+        return new Info(0, 0, nodes, (System.nanoTime() - start) / 1_000_000, pv);
+    }
+
+    private int negamax(Board b, Color side, int depth, int alpha, int beta, int ply, List<String> pv) {
+        if (limitHit()) return 0;
+        if (depth <= 0) return quiesce(b, side, alpha, beta, QS_DEPTH, ply);
+        nodes++;
+
+        long key = b.positionKey(side);
+        int alphaOrig = alpha;
+        int slot = tt.probe(key);
+        String ttMove = null;
+        if (slot >= 0) {
+            ttMove = tt.move(slot).isEmpty() ? null : tt.move(slot);
+            if (ply > 0 && tt.depth(slot) >= depth) {
+                int s = fromTt(tt.score(slot), ply);
+                int bound = tt.bound(slot);
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && s >= beta)
+                    || (bound == TranspositionTable.UPPER && s <= alpha)) {
+                    if (ttMove != null) { pv.clear(); pv.add(ttMove); }
+                    return s;
+                }
+            }
+        }
+
+        List<String> moves = b.generateMoves(side);
+        if (moves.isEmpty()) return b.isKingInCheck(side) ? -MATE + ply : 0;
+        order(b, moves, ttMove);
+
+        int best = -INF;
+        String bestMove = null;
+        List<String> childPv = new ArrayList<>();
+        for (String m : moves) {
+            if (ply == 0 && rootExcluded.contains(m)) continue;
+            Board child = b.copy();
+            try {
+                child.applyMove(m, side);
+            } catch (IllegalMoveException e) {
+                continue;
+            }
+            childPv.clear();
+            int score = -negamax(child, side.opposite(), depth - 1, -beta, -alpha, ply + 1, childPv);
+            if (aborted) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = m;
+                pv.clear();
+                pv.add(m);
+                pv.addAll(childPv);
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+
+        int bound = best <= alphaOrig ? TranspositionTable.UPPER
+                  : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        // a root searched with moves excluded has no trustworthy score for the position
+        if (ply > 0 || rootExcluded.isEmpty()) tt.store(key, depth, toTt(best, ply), bound, bestMove);
+        return best;
+    }
+
+    // captures only, with stand-pat, to settle the horizon; in check every evasion is
+    // searched instead, so mate and stalemate at the horizon are scored as such
+    private int quiesce(Board b, Color side, int alpha, int beta, int qdepth, int ply) {
+        if (limitHit()) return 0;
+        nodes++;
+        boolean inCheck = b.isKingInCheck(side);
+        List<String> moves = b.generateMoves(side);
+        if (moves.isEmpty()) return inCheck ? -MATE + ply : 0;
+        int stand = Eval.evaluate(b, side);
+        if (qdepth == 0 || (!inCheck && stand >= beta)) return stand;
+        if (!inCheck && stand > alpha) alpha = stand;
+
+        if (!inCheck) moves.removeIf(m -> !isCapture(b, m));
+        order(b, moves, null);
+        int best = inCheck ? -INF : alpha;
+        for (String m : moves) {
+            Board child = b.copy();
+            try {
+                child.applyMove(m, side);
+            } catch (IllegalMoveException e) {
+                continue;
+            }
+            int score = -quiesce(child, side.opposite(), -beta, -alpha, qdepth - 1, ply + 1);
+            if (aborted) return 0;
+            if (score >= beta) return score;
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+        }
+        return best;
+    }
+
+    // hash move first, then captures by victim value (MVV), then the rest
+    private static void order(Board b, List<String> moves, String ttMove) {
+        moves.sort((m1, m2) -> Integer.compare(orderKey(b, m2, ttMove), orderKey(b, m1, ttMove)));
+    }
+
+    private static int orderKey(Board b, String m, String ttMove) {
+        if (m.equals(ttMove)) return 100_000;
+        int k = Eval.value(b.get(Position.fromAlgebraic(m.substring(2, 4)))) * 10;
+        if (m.length() == 5) k += Eval.VALUE[Board.promotionType(m.charAt(4)).ordinal()];
+        return k;
+    }
+
+    private static boolean isCapture(Board b, String m) {
+        Position from = Position.fromAlgebraic(m.substring(0, 2));
+        Position to = Position.fromAlgebraic(m.substring(2, 4));
+        if (b.get(to) != null) return true;
+        Piece p = b.get(from);
+        return p != null && p.getType() == PieceType.PAWN && from.getX() != to.getX();
+    }
+
+    // node/time/stop check, amortised over CHECK_EVERY nodes
+    private boolean limitHit() {
+        if (aborted) return true;
+        if (nodes >= nodeLimit || stopRequested) {
+            aborted = true;
+        } else if ((nodes & (CHECK_EVERY - 1)) == 0 && deadline != Long.MAX_VALUE && System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    // mate scores are stored relative to the node, not the root
+    private static int toTt(int score, int ply) {
+        if (score >= MATE - MAX_DEPTH) return score + ply;
+        if (score <= -MATE + MAX_DEPTH) return score - ply;
+        return score;
+    }
+
+    private static int fromTt(int score, int ply) {
+        if (score >= MATE - MAX_DEPTH) return score - ply;
+        if (score <= -MATE + MAX_DEPTH) return score + ply;
+        return score;
+    }
+}
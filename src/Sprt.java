@@ -0,0 +1,68 @@
+package src;
+
+// Elo estimate and sequential probability ratio test over win/draw/loss counts
+public final class Sprt {
+    public enum Verdict { ACCEPT_H0, ACCEPT_H1, CONTINUE }
+
+    private final double elo0, elo1;
+    private final double lower, upper; // LLR bounds
+
+    // H0: elo <= elo0, H1: elo >= elo1; alpha/beta are the error rates
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (elo1 <= elo0) throw new IllegalArgumentException("elo1 must be greater than elo0");
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+    }
+
+    // log-likelihood ratio (normal approximation of the trinomial model)
+    public double llr(int wins, int draws, int losses) {
+        int n = wins + draws + losses;
+        if (n == 0 || wins + losses == 0) return 0;
+        double mean = score(wins, draws, losses);
+        double var = (wins * sq(1 - mean) + draws * sq(0.5 - mean) + losses * sq(mean)) / n;
+        if (var <= 0) return 0;
+        double s0 = expectedScore(elo0), s1 = expectedScore(elo1);
+        return n * (s1 - s0) * (2 * mean - s0 - s1) / (2 * var);
+    }
+
+    public Verdict verdict(int wins, int draws, int losses) {
+        double llr = llr(wins, draws, losses);
+        if (llr >= upper) return Verdict.ACCEPT_H1;
+        if (llr <= lower) return Verdict.ACCEPT_H0;
+        return Verdict.CONTINUE;
+    }
+
+    public double lowerBound() { return lower; }
+    public double upperBound() { return upper; }
+
+    // score fraction for the first player, draws count half
+    public static double score(int wins, int draws, int losses) {
+        int n = wins + draws + losses;
+        return n == 0 ? 0.5 : (wins + 0.5 * draws) / n;
+    }
+
+    // Elo difference implied by the score fraction (clamped away from 0/1)
+    public static double elo(int wins, int draws, int losses) {
+        double s = Math.min(0.999, Math.max(0.001, score(wins, draws, losses)));
+        return -400 * Math.log10(1 / s - 1);
+    }
+
+    // 95% error margin of elo(), by the delta method
+    public static double eloError(int wins, int draws, int losses) {
+        int n = wins + draws + losses;
+        if (n < 2) return Double.POSITIVE_INFINITY;
+        double s = Math.min(0.999, Math.max(0.001, score(wins, draws, losses)));
+        double var = (wins * sq(1 - s) + draws * sq(0.5 - s) + losses * sq(s)) / n;
+        double se = Math.sqrt(var / n);
+        double slope = 400 / (Math.log(10) * s * (1 - s)); // d elo / d score
+        return 1.96 * se * slope;
+    }
+
+    static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double sq(double v) { return v * v; }
+}
@@ -0,0 +1,20 @@
+package src;
+
+// per-move soft/hard time budget from the clock
+public final class TimeManager {
+    static final int MOVES_TO_GO = 30;     // assumed moves left when the clock has no move count
+    static final long OVERHEAD_MS = 30;    // reserved for I/O and the limit-check interval
+    static final int HARD_FACTOR = 4;      // hard deadline = this many soft budgets at most
+
+    private TimeManager() {}
+
+    // soft = target for a stable iteration, hard = never exceed
+    public static Search.Limits limitsFor(long remainingMs, long incrementMs) {
+        long usable = Math.max(1, remainingMs - OVERHEAD_MS);
+        long soft = usable / MOVES_TO_GO + incrementMs * 3 / 4;
+        long hard = Math.min(soft * HARD_FACTOR, usable / 3 + incrementMs);
+        hard = Math.max(1, Math.min(hard, usable));
+        soft = Math.max(1, Math.min(soft, hard));
+        return Search.Limits.timed(soft, hard);
+    }
+}
@@ -0,0 +1,248 @@
+package src;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// engine-vs-engine match: concurrent headless games, PGN stream, Elo and SPRT early stop
+public class Tournament {
+
+    // one engine configuration
+    public static final class Player {
+        public final String name;
+        public final Search.Limits limits;
+        public Player(String name, Search.Limits limits) {
+            this.name = name;
+            this.limits = limits;
+        }
+        // "depth:3", "nodes:5000" or "movetime:100"
+        public static Player parse(String name, String spec) {
+            String[] kv = spec.split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad engine spec: " + spec);
+            long v = Long.parseLong(kv[1]);
+            switch (kv[0]) {
+                case "depth":    return new Player(name, Search.Limits.depth((int) v));
+                case "nodes":    return new Player(name, Search.Limits.nodes(v));
+                case "movetime": return new Player(name, Search.Limits.millis(v));
+                default: throw new IllegalArgumentException("Bad engine spec: " + spec);
+            }
+        }
+    }
+
+    // rules for ending games early
+    public static final class Adjudication {
+        public final int maxPlies;     // draw after this many plies
+        public final int resignScore;  // centipawns
+        public final int resignMoves;  // consecutive own moves at or below -resignScore
+        public Adjudication(int maxPlies, int resignScore, int resignMoves) {
+            this.maxPlies = maxPlies;
+            this.resignScore = resignScore;
+            this.resignMoves = resignMoves;
+        }
+        public static Adjudication defaults() { return new Adjudication(300, 1000, 3); }
+    }
+
+    // running totals from player A's point of view
+    public static final class Standings {
+        public final int wins, draws, losses;
+        public final Sprt.Verdict verdict;
+        Standings(int wins, int draws, int losses, Sprt.Verdict verdict) {
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+            this.verdict = verdict;
+        }
+        public int games() { return wins + draws + losses; }
+    }
+
+    private final Player a, b;
+    private final Adjudication adj;
+    private final Sprt sprt;
+    private final int concurrency;
+
+    private int wins, draws, losses;
+    private volatile boolean decided;
+
+    public Tournament(Player a, Player b, Adjudication adj, Sprt sprt, int concurrency) {
+        if (concurrency < 1) throw new IllegalArgumentException("concurrency must be >= 1");
+        this.a = a;
+        this.b = b;
+        this.adj = adj;
+        this.sprt = sprt;
+        this.concurrency = concurrency;
+    }
+
+    // opening FENs one per line (EPD operations after the 4th field are ignored)
+    public static List<String> loadOpenings(Path file) throws IOException {
+        List<String> out = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String t = line.trim();
+            if (t.isEmpty() || t.startsWith("#")) continue;
+            String[] f = t.split("\\s+");
+            if (f.length < 4) throw new IllegalArgumentException("Bad opening: " + t);
+            String fen = f[0] + " " + f[1] + " " + f[2] + " " + f[3];
+            Fen.parse(fen); // fail fast on a bad file
+            out.add(fen);
+        }
+        if (out.isEmpty()) out.add(Fen.START);
+        return out;
+    }
+
+    // play up to maxGames (each opening twice, colours swapped) or until SPRT decides;
+    // a game that fails stops the match and its error is rethrown, never a short count
+    public Standings run(List<String> openings, int maxGames, Path pgnFile, Consumer<Standings> progress)
+            throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> games = new ArrayList<>();
+        try (BufferedWriter pgn = Files.newBufferedWriter(pgnFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < maxGames; i++) {
+                final int round = i;
+                games.add(pool.submit(() -> {
+                    if (decided) return;
+                    try {
+                        String fen = openings.get((round / 2) % openings.size());
+                        boolean aWhite = round % 2 == 0;
+                        String record = playGame(aWhite ? a : b, aWhite ? b : a, fen, round + 1, aWhite);
+                        finish(record, pgn, progress);
+                    } catch (RuntimeException | Error e) {
+                        decided = true;   // queued games are skipped; the failure is reported below
+                        throw e;
+                    }
+                }));
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            for (Future<?> g : games) {
+                try {
+                    g.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause.getCause() instanceof IOException) throw (IOException) cause.getCause(); // PGN write
+                    if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                    if (cause instanceof Error) throw (Error) cause;
+                    throw new IOException("Match game failed", cause);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return standings();
+    }
+
+    public synchronized Standings standings() {
+        return new Standings(wins, draws, losses, sprt.verdict(wins, draws, losses));
+    }
+
+    // record one game: the first line of 'record' is A's score ("1", "0.5", "0")
+    private void finish(String record, Writer pgn, Consumer<Standings> progress) {
+        int nl = record.indexOf('\n');
+        String aScore = record.substring(0, nl);
+        Standings s;
+        synchronized (this) {
+            if (aScore.equals("1")) wins++;
+            else if (aScore.equals("0")) losses++;
+            else draws++;
+            try {
+                pgn.write(record, nl + 1, record.length() - nl - 1);
+                pgn.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException("PGN write failed", e);
+            }
+            s = standings();
+            if (s.verdict != Sprt.Verdict.CONTINUE) decided = true;
+        }
+        if (progress != null) progress.accept(s);
+    }
+
+    // headless game between two engines; returns A's score line followed by the PGN
+    String playGame(Player white, Player black, String fen, int round, boolean aWhite) {
+        Fen.Setup setup = Fen.parse(fen);
+        Board board = setup.board;
+        Color turn = setup.turn;
+        Search ws = new Search(new TranspositionTable(1 << 16));
+        Search bs = new Search(new TranspositionTable(1 << 16));
+
+        List<String> san = new ArrayList<>();
+        Map<Long, Integer> seen = new HashMap<>();
+        int[] losingStreak = new int[2];
+        String result = null, reason = null;
+
+        while (result == null) {
+            long key = board.positionKey(turn);
+            if (seen.merge(key, 1, Integer::sum) >= 3) { result = "1/2-1/2"; reason = "threefold repetition"; break; }
+            if (insufficientMaterial(board)) { result = "1/2-1/2"; reason = "insufficient material"; break; }
+            if (san.size() >= adj.maxPlies) { result = "1/2-1/2"; reason = "move limit"; break; }
+
+            List<String> legal = board.generateMoves(turn);
+            if (legal.isEmpty()) {
+                if (board.isKingInCheck(turn)) {
+                    result = (turn == Color.WHITE) ? "0-1" : "1-0";
+                    reason = "checkmate";
+                } else {
+                    result = "1/2-1/2";
+                    reason = "stalemate";
+                }
+                break;
+            }
+
+            Search.Info info = (turn == Color.WHITE ? ws : bs).search(board, turn, (turn == Color.WHITE ? white : black).limits);
+            int side = turn.ordinal();
+            losingStreak[side] = (info.score <= -adj.resignScore) ? losingStreak[side] + 1 : 0;
+            if (losingStreak[side] >= adj.resignMoves) {
+                result = (turn == Color.WHITE) ? "0-1" : "1-0";
+                reason = "adjudicated resign";
+                break;
+            }
+
+            String move = info.bestMove();
+            san.add(San.toSan(board, turn, move, legal));
+            try {
+                board.applyMove(move, turn);
+            } catch (IllegalMoveException e) {
+                throw new IllegalStateException("Engine produced illegal move " + move, e);
+            }
+            turn = turn.opposite();
+        }
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Engine match");
+        tags.put("Round", String.valueOf(round));
+        tags.put("White", white.name);
+        tags.put("Black", black.name);
+        tags.put("Result", result);
+        tags.put("Termination", reason);
+        if (!fen.equals(Fen.START.substring(0, Fen.START.length() - 4))) {
+            tags.put("SetUp", "1");
+            tags.put("FEN", fen + " 0 1");
+        }
+        String aScore = result.equals("1/2-1/2") ? "0.5"
+                      : (result.equals("1-0") == aWhite) ? "1" : "0";
+        return aScore + "\n" + Pgn.format(tags, setup.turn, san, result);
+    }
+
+    // bare kings, or king plus a single minor piece against a bare king
+    static boolean insufficientMaterial(Board b) {
+        int minors = 0;
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) {
+            Piece p = b.get(x, y);
+            if (p == null || p.getType() == PieceType.KING) continue;
+            if (p.getType() == PieceType.BISHOP || p.getType() == PieceType.KNIGHT) minors++;
+            else return false;
+        }
+        return minors <= 1;
+    }
+}
@@ -0,0 +1,56 @@
+package src;
+
+// fixed-size always-replace hash table of search results, indexed by Board.positionKey
+public class TranspositionTable {
+    static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final byte[] depths;
+    private final byte[] bounds;
+    private final String[] moves;
+    private final int mask;
+
+    // entries is rounded down to a power of two
+    public TranspositionTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        scores = new int[size];
+        depths = new byte[size];
+        bounds = new byte[size];
+        moves = new String[size];
+        mask = size - 1;
+    }
+
+    // slot index for a key, or -1 when the slot holds another position
+    int probe(long key) {
+        int i = (int) key & mask;
+        return (keys[i] == key && moves[i] != null) ? i : -1;
+    }
+
+    int score(int slot) { return scores[slot]; }
+    int depth(int slot) { return depths[slot]; }
+    int bound(int slot) { return bounds[slot]; }
+    String move(int slot) { return moves[slot]; }
+
+    // best move stored for a position (null if none)
+    public String bestMove(long key) {
+        int i = probe(key);
+        return (i < 0 || moves[i].isEmpty()) ? null : moves[i];
+    }
+
+    void store(long key, int depth, int score, int bound, String move) {
+        int i = (int) key & mask;
+        // keep a deeper entry for the same position unless we have a better bound
+        if (keys[i] == key && depths[i] > depth && bound != EXACT) return;
+        keys[i] = key;
+        depths[i] = (byte) Math.min(depth, 127);
+        scores[i] = score;
+        bounds[i] = (byte) bound;
+        moves[i] = (move == null) ? "" : move;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(moves, null);
+    }
+}
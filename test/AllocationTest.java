@@ -0,0 +1,88 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AllocationTest {
+    // bytes/call ceilings per operation; raise only with a reason in the commit
+    private static final Path BUDGET = Path.of("test", "alloc-budget.properties");
+    private static final int WARMUP = 20_000;
+    private static final int CALLS = 20_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink; // keeps results alive so calls are not optimised away
+
+    @Test
+    void rulesHotPathsStayWithinBudget() throws Exception {
+        // What: bytes allocated per call of the board rule checks do not regress.
+        // How: per-thread allocation counter around warmed-up loops, compared to the checked-in budget.
+        assertTrue(THREADS.isThreadAllocatedMemorySupported(), "JVM lacks per-thread allocation counters");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        Properties budget = loadBudget();
+
+        Board b = Fen.parse("r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4").board;
+        Position e1 = Position.fromAlgebraic("e1"), g1 = Position.fromAlgebraic("g1");
+        Position f3 = Position.fromAlgebraic("f3"), g5 = Position.fromAlgebraic("g5");
+        Position f6 = Position.fromAlgebraic("f6"), g8 = Position.fromAlgebraic("g8");
+
+        Map<String, Runnable> ops = new LinkedHashMap<>();
+        ops.put("isSquareAttacked", () -> sink += b.isSquareAttacked(f3, Color.BLACK) ? 1 : 0);
+        ops.put("isKingInCheck", () -> sink += b.isKingInCheck(Color.WHITE) ? 1 : 0);
+        ops.put("isLegalMove", () -> sink += b.isLegalMove(f3, g5, Color.WHITE) ? 1 : 0);
+        ops.put("isLegalMove.castle", () -> sink += b.isLegalMove(e1, g1, Color.WHITE) ? 1 : 0);
+        ops.put("legalMovesFrom", () -> sink += b.legalMovesFrom(f3, Color.WHITE).size());
+        ops.put("hasAnyLegalMove", () -> sink += b.hasAnyLegalMove(Color.BLACK) ? 1 : 0);
+        // four knight moves that return to the start position, so the loop can run forever
+        Position[][] shuffle = {{f3, g1}, {f6, g8}, {g1, f3}, {g8, f6}};
+        int[] step = {0};
+        ops.put("move", () -> {
+            Position[] m = shuffle[step[0]];
+            try {
+                sink += b.move(m[0], m[1], (step[0] & 1) == 0 ? Color.WHITE : Color.BLACK).gaveCheck ? 1 : 0;
+            } catch (IllegalMoveException e) {
+                throw new IllegalStateException(e);
+            }
+            step[0] = (step[0] + 1) & 3;
+        });
+
+        List<String> over = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format("%-20s %12s %12s %14s%n", "operation", "bytes/call", "budget", "calls/s"));
+        for (Map.Entry<String, Runnable> op : ops.entrySet()) {
+            String limit = budget.getProperty(op.getKey());
+            assertNotNull(limit, "no budget for " + op.getKey() + " in " + BUDGET);
+            Runnable r = op.getValue();
+            for (int i = 0; i < WARMUP; i++) r.run();
+
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            long t0 = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) r.run();
+            long nanos = System.nanoTime() - t0;
+            double perCall = (double) (THREADS.getCurrentThreadAllocatedBytes() - before) / CALLS;
+
+            table.append(String.format("%-20s %12.1f %12s %14.0f%n", op.getKey(), perCall, limit, CALLS * 1e9 / nanos));
+            if (perCall > Double.parseDouble(limit)) over.add(op.getKey() + " " + String.format("%.1f", perCall) + " > " + limit);
+        }
+        System.out.print(table);
+        assertTrue(over.isEmpty(), "allocation budget exceeded: " + over);
+    }
+
+    private static Properties loadBudget() throws IOException {
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(BUDGET)) {
+            p.load(in);
+        }
+        return p;
+    }
+}
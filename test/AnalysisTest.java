@@ -0,0 +1,53 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisTest {
+
+    @Test
+    void multiPvListsDistinctMovesBestFirst() {
+        // What: multi-PV returns different root moves in score order.
+        // How: hanging-queen position, 3 lines at depth 2 → d1d8 first, scores non-increasing.
+        Fen.Setup s = Fen.parse("3q2k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        List<Search.Info> lines = new Search().searchMultiPv(s.board, s.turn, 3, Search.Limits.depth(2), null);
+        assertEquals(3, lines.size());
+        assertEquals("d1d8", lines.get(0).bestMove());
+        Set<String> firsts = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(firsts.add(lines.get(i).bestMove()));
+            if (i > 0) assertTrue(lines.get(i - 1).score >= lines.get(i).score);
+        }
+    }
+
+    @Test
+    void streamsIterationsUntilStopped() throws Exception {
+        // What: background analysis reports each iteration and stops on request.
+        // How: wait for depth 2 from the start position, stop, check the formatted block.
+        Board b = Board.standardSetup();
+        CountDownLatch depthTwo = new CountDownLatch(1);
+        Analysis a = Analysis.start(new Search(), b, Color.WHITE, 2, lines -> {
+            if (lines.get(0).depth >= 2) depthTwo.countDown();
+        });
+        assertTrue(depthTwo.await(30, TimeUnit.SECONDS));
+        List<Search.Info> last = a.stop();
+        assertEquals(2, last.size());
+        String text = Analysis.format(b, Color.WHITE, last);
+        assertTrue(text.startsWith("depth "));
+        assertTrue(text.contains("  1. ") && text.contains("  2. "));
+    }
+
+    @Test
+    void mateScoresShownInMoves() {
+        // What: mate scores print as move counts.
+        // How: mate in 1 (1 ply) and being mated in 1 (2 plies).
+        assertEquals("#1", Analysis.score(Search.MATE - 1));
+        assertEquals("#-1", Analysis.score(-Search.MATE + 2));
+        assertEquals("+0.35", Analysis.score(35));
+    }
+}
@@ -0,0 +1,54 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardRendererTest {
+
+    @Test
+    void plainFrameMatchesClassicLayout() {
+        // What: the buffered frame keeps the old console layout.
+        // How: start position text has the rank rows, footer and move list.
+        String text = BoardRenderer.toText(Board.standardSetup(), List.of("e2e4"), false);
+        assertTrue(text.startsWith("    a  b  c  d  e  f  g  h\n   -------------------------\n8 | r  n  b  q  k  b  n  r  | 8\n"));
+        assertTrue(text.contains("2 | P  P  P  P  P  P  P  P  | 2\n"));
+        assertTrue(text.contains("Moves: e2e4\n"));
+        assertFalse(text.contains("check"));
+    }
+
+    @Test
+    void plainFrameIgnoresHighlights() throws Exception {
+        // What: plain output is byte-identical to the classic print, with no move or pip markers.
+        // How: render after e2e4 with and without the last move and pip targets; frames must match.
+        Board b = Board.standardSetup();
+        b.applyMove("e2e4", Color.WHITE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BoardRenderer(new PrintStream(bytes, true), false).render(b, List.of("e2e4"), false, "e2e4", List.of("g8f6", "g8h6"));
+        assertEquals(BoardRenderer.toText(b, List.of("e2e4"), false), bytes.toString());
+        assertFalse(bytes.toString().contains("'"));
+        assertFalse(bytes.toString().contains("*"));
+    }
+
+    @Test
+    void ansiRedrawsOnlyChangedSquares() throws Exception {
+        // What: after the first frame, ANSI mode writes just the squares a move touched.
+        // How: render, play e2e4, render again; the second frame addresses exactly e2 and e4.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BoardRenderer r = new BoardRenderer(new PrintStream(bytes, true), true);
+        Board b = Board.standardSetup();
+        r.render(b, List.of(), false, null, null);
+        int first = bytes.size();
+        bytes.reset();
+
+        b.applyMove("e2e4", Color.WHITE);
+        r.render(b, List.of("e2e4"), false, "e2e4", null);
+        String diff = bytes.toString();
+        assertTrue(diff.length() < first / 3);
+        assertTrue(diff.contains("\u001b[9;17H"));   // e2
+        assertTrue(diff.contains("\u001b[7;17H"));   // e4
+        assertEquals(3, diff.split("H", -1).length - 1); // e2, e4 and the status row
+    }
+}
@@ -0,0 +1,55 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardSnapshotTest {
+
+    @Test
+    void thawRestoresPosition() throws Exception {
+        // What: snapshot -> thaw keeps pieces, castling rights and en passant.
+        // How: compare FEN and position key before and after a round trip.
+        Fen.Setup s = Fen.parse("r3k2r/ppp2ppp/8/3pP3/8/8/PPP2PPP/R3K2R w Kq d6 0 1");
+        BoardSnapshot snap = s.board.snapshot();
+        Board back = snap.thaw();
+        assertEquals(Fen.toFen(s.board, s.turn), Fen.toFen(back, s.turn));
+        assertEquals(s.board.positionKey(s.turn), back.positionKey(s.turn));
+        assertTrue(snap.hasCastlingRight(Color.WHITE, true));
+        assertFalse(snap.hasCastlingRight(Color.WHITE, false));
+        assertEquals(PieceType.ROOK, snap.typeAt(0, 7));
+        assertEquals(Color.BLACK, snap.colorAt(0, 7));
+        assertNull(snap.typeAt(4, 3));
+    }
+
+    @Test
+    void snapshotIsUnaffectedByLaterMoves() throws Exception {
+        // What: a snapshot is a value, not a view.
+        // How: move on the source board; the old snapshot still thaws to the start position and equals a fresh one.
+        Board b = Board.standardSetup();
+        BoardSnapshot before = b.snapshot();
+        b.applyMove("e2e4", Color.WHITE);
+        assertNotEquals(before, b.snapshot());
+        assertEquals(Board.standardSetup().snapshot(), before);
+        assertEquals(before.hashCode(), Board.standardSetup().snapshot().hashCode());
+    }
+
+    @Test
+    void sharedAcrossThreads() throws Exception {
+        // What: many threads read and thaw one snapshot without coordination.
+        // How: 8 tasks each thaw and count legal moves from the start position.
+        BoardSnapshot snap = Board.standardSetup().snapshot();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) counts.add(pool.submit(() -> snap.thaw().generateMoves(Color.WHITE).size()));
+            for (Future<Integer> c : counts) assertEquals(20, c.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
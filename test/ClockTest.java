@@ -0,0 +1,72 @@
+package src;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClockTest {
+
+    @Test
+    void incrementDelayAndFlag() {
+        // What: increment after a move, delay absorbs short thinks, flag on timeout.
+        // How: fake time source; 10s base, 1s inc, 2s delay.
+        long[] now = { 0 };
+        Clock c = new Clock(10_000, 1_000, 2_000, () -> now[0]);
+        c.start(Color.WHITE);
+        now[0] += 1_500_000_000L;                        // 1.5s, inside the delay
+        assertTrue(c.stop());
+        assertEquals(11_000, c.remaining(Color.WHITE));  // nothing spent, +1s increment
+
+        c.start(Color.BLACK);
+        now[0] += 13_000_000_000L;                       // 13s - 2s delay = 11s > 10s
+        assertFalse(c.stop());
+        assertTrue(c.flagged(Color.BLACK));
+        assertEquals("0:00.0", c.display(Color.BLACK));
+    }
+
+    @Test
+    void flaggedPlayerLosesBeforeTheNextCommand() {
+        // What: a human whose flag fell cannot run another command or move.
+        // How: the fake clock gains 1s per reading against a 0.5s base; "hint" must not run.
+        long[] now = { 0 };
+        Clock c = new Clock(500, 0, 0, () -> now[0] += 1_000_000_000L);
+        Game g = new Game(new Scanner("W\nB\nhint\n"));
+        g.setClock(c);
+        PrintStream out = System.out;
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(buf, true));
+        try {
+            g.run();
+        } finally {
+            System.setOut(out);
+        }
+        assertTrue(buf.toString().contains("W ran out of time. B wins!"));
+        assertFalse(buf.toString().contains("legal moves"));
+        assertTrue(c.flagged(Color.WHITE));
+    }
+
+    @Test
+    void timeManagerStaysWithinClock() {
+        // What: soft <= hard <= remaining time, and a sensible share of it.
+        // How: 60s + 1s increment, then a nearly empty clock.
+        Search.Limits l = TimeManager.limitsFor(60_000, 1_000);
+        assertTrue(l.softMillis > 0 && l.softMillis <= l.millis);
+        assertTrue(l.millis < 60_000 / 3 + 1_000);
+        Search.Limits low = TimeManager.limitsFor(50, 0);
+        assertTrue(low.millis >= 1 && low.millis <= 50);
+    }
+
+    @Test
+    void searchRespectsHardDeadline() {
+        // What: a timed search stops near its hard deadline.
+        // How: 100 ms hard limit from the start position; allow generous overshoot for slow CI.
+        long start = System.nanoTime();
+        Search.Info info = new Search().search(Board.standardSetup(), Color.WHITE, Search.Limits.timed(50, 100));
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(info.bestMove());
+        assertTrue(ms < 600, "took " + ms + " ms");
+    }
+}
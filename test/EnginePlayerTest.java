@@ -0,0 +1,43 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnginePlayerTest {
+
+    @Test
+    void ponderHitUsesBackgroundSearch() throws Exception {
+        // What: the predicted reply is answered by the ponder search.
+        // How: engine moves for White, Black plays the PV reply, engine thinks again.
+        try (EnginePlayer engine = new EnginePlayer(Search.Limits.millis(150), true)) {
+            Board b = Board.standardSetup();
+            Search.Info first = engine.think(b, Color.WHITE);
+            b.applyMove(first.bestMove(), Color.WHITE);
+            engine.startPonder(b, Color.BLACK, first);
+
+            b.applyMove(first.pv.get(1), Color.BLACK);
+            Search.Info second = engine.think(b, Color.WHITE);
+            assertTrue(engine.lastWasPonderHit());
+            assertTrue(b.generateMoves(Color.WHITE).contains(second.bestMove()));
+        }
+    }
+
+    @Test
+    void ponderMissIsCancelled() throws Exception {
+        // What: an unexpected reply cancels pondering and searches afresh.
+        // How: Black plays something other than the PV reply; the answer is legal and not a hit.
+        try (EnginePlayer engine = new EnginePlayer(Search.Limits.millis(150), true)) {
+            Board b = Board.standardSetup();
+            Search.Info first = engine.think(b, Color.WHITE);
+            b.applyMove(first.bestMove(), Color.WHITE);
+            engine.startPonder(b, Color.BLACK, first);
+
+            String other = b.generateMoves(Color.BLACK).stream()
+                .filter(m -> !m.equals(first.pv.get(1))).findFirst().get();
+            b.applyMove(other, Color.BLACK);
+            Search.Info second = engine.think(b, Color.WHITE);
+            assertFalse(engine.lastWasPonderHit());
+            assertTrue(b.generateMoves(Color.WHITE).contains(second.bestMove()));
+        }
+    }
+}
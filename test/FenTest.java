@@ -0,0 +1,37 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTest {
+
+    @Test
+    void startPositionRoundTrip() {
+        // What: start FEN matches standardSetup.
+        // How: parse START, write it back, compare keys with standardSetup.
+        Fen.Setup s = Fen.parse(Fen.START);
+        assertEquals(Color.WHITE, s.turn);
+        assertEquals(Fen.START, Fen.toFen(s.board, s.turn));
+        assertEquals(Board.standardSetup().positionKey(Color.WHITE), s.board.positionKey(s.turn));
+    }
+
+    @Test
+    void castlingAndEnPassantFields() {
+        // What: missing castling rights and EP square survive a round trip.
+        // How: only "Kq" rights plus EP on d6.
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1";
+        Fen.Setup s = Fen.parse(fen);
+        assertTrue(s.board.hasCastlingRight(Color.WHITE, true));
+        assertFalse(s.board.hasCastlingRight(Color.WHITE, false));
+        assertTrue(s.board.isLegalMove(Position.fromAlgebraic("e5"), Position.fromAlgebraic("d6"), Color.WHITE));
+        assertEquals(fen, Fen.toFen(s.board, s.turn));
+    }
+
+    @Test
+    void badFenThrows() {
+        // What: malformed FEN is rejected.
+        // How: short rank and bad side field.
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(Fen.START.replace(" w ", " x ")));
+    }
+}
@@ -0,0 +1,112 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class GameHistoryTest {
+
+    // play 'moves' from the start, recording each; snapshots.get(i) is the position at ply i
+    private static Board play(GameHistory h, List<BoardSnapshot> snapshots, String... moves) throws Exception {
+        Board b = Board.standardSetup();
+        Color turn = Color.WHITE;
+        snapshots.add(b.snapshot());
+        for (String m : moves) {
+            Board.MoveResult r = b.applyMove(m, turn);
+            h.record(m, Game.notation(m, r.wasCapture, r.gaveCheck), b.lastUndo(), b);
+            snapshots.add(b.snapshot());
+            turn = turn.opposite();
+        }
+        return b;
+    }
+
+    @Test
+    void undoRestoresSpecialMoves() throws Exception {
+        // What: stepping back undoes en passant, castling (rights included) and promotion exactly.
+        // How: a line with all three; seek back one ply at a time and compare every position.
+        GameHistory h = new GameHistory(Board.standardSetup(), Color.WHITE);
+        List<BoardSnapshot> snaps = new ArrayList<>();
+        Board b = play(h, snaps, "e2e4", "g8f6", "e4e5", "d7d5", "e5d6", "e7e6", "d6c7", "f8e7",
+            "g1f3", "e8g8", "c7b8n", "d8d2", "b1d2");
+        for (int ply = snaps.size() - 1; ply >= 0; ply--) {
+            b = h.seek(b, ply);
+            assertEquals(snaps.get(ply), b.snapshot(), "ply " + ply);
+            assertEquals(h.turnAt(ply) == Color.WHITE, ply % 2 == 0);
+        }
+        assertNull(h.lastMove());
+        assertTrue(h.notation().isEmpty());
+        b = h.seek(b, 5);
+        assertEquals("e5xd6", h.notation().get(4));
+        assertEquals("e5d6", h.lastMove());
+    }
+
+    @Test
+    void seekMatchesReplayAnywhereInLongGames() throws Exception {
+        // What: any ply is reached exactly, from checkpoints or by stepping, in long games.
+        // How: seeded random games of up to 200 plies; jump to random plies and compare snapshots.
+        for (long seed = 1; seed <= 5; seed++) {
+            Random rnd = new Random(seed);
+            List<String> line = new ArrayList<>();
+            Board walk = Board.standardSetup();
+            Color turn = Color.WHITE;
+            for (int i = 0; i < 200; i++) {
+                List<String> moves = walk.generateMoves(turn);
+                if (moves.isEmpty()) break;
+                String m = moves.get(rnd.nextInt(moves.size()));
+                walk.applyMove(m, turn);
+                line.add(m);
+                turn = turn.opposite();
+            }
+            GameHistory h = new GameHistory(Board.standardSetup(), Color.WHITE);
+            List<BoardSnapshot> snaps = new ArrayList<>();
+            Board b = play(h, snaps, line.toArray(new String[0]));
+            for (int k = 0; k < 100; k++) {
+                int target = rnd.nextInt(h.size() + 1);
+                b = h.seek(b, target);
+                assertEquals(target, h.ply());
+                assertEquals(snaps.get(target), b.snapshot(), "seed " + seed + " ply " + target);
+            }
+        }
+    }
+
+    @Test
+    void recordingAfterUndoDropsTheOldLine() throws Exception {
+        // What: a new move after takebacks replaces the plies that could have been redone.
+        // How: 40 plies, back to 20, play a different move, then seek across the new end.
+        GameHistory h = new GameHistory(Board.standardSetup(), Color.WHITE);
+        String[] cycle = { "g1f3", "g8f6", "f3g1", "f6g8" };
+        String[] moves = new String[40];
+        for (int i = 0; i < 40; i++) moves[i] = cycle[i % 4];
+        Board b = play(h, new ArrayList<>(), moves);
+        b = h.seek(b, 20);
+        b.applyMove("e2e4", Color.WHITE);
+        h.record("e2e4", "e2e4", b.lastUndo(), b);
+        assertEquals(21, h.size());
+        assertEquals(21, h.notation().size());
+        assertEquals("e2e4", h.notation().get(20));
+        Board start = h.seek(b, 0);
+        Board end = h.seek(start, 21);
+        assertNotNull(end.get(Position.fromAlgebraic("e4")));
+        assertThrows(IllegalArgumentException.class, () -> h.seek(end, 22));
+    }
+
+    @Test
+    void resumedHistoryStopsAtItsStart() throws Exception {
+        // What: a history continuing earlier plies numbers on from them but cannot go before them.
+        // How: start after two notation-only plies, play one move, seek back and below.
+        Board b = Board.standardSetup();
+        b.applyMove("e2e4", Color.WHITE);
+        b.applyMove("e7e5", Color.BLACK);
+        GameHistory h = new GameHistory(b, Color.WHITE, List.of("e2e4", "e7e5"));
+        b.applyMove("g1f3", Color.WHITE);
+        h.record("g1f3", "g1f3", b.lastUndo(), b);
+        assertEquals(List.of("e2e4", "e7e5", "g1f3"), h.notation());
+        assertEquals(Color.BLACK, h.turnAt(3));
+        Board back = h.seek(b, 2);
+        assertNull(back.get(Position.fromAlgebraic("f3")));
+        assertNull(h.lastMove());
+        assertThrows(IllegalArgumentException.class, () -> h.seek(back, 1));
+    }
+}
@@ -0,0 +1,154 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameJournalTest {
+
+    // play moves on b, journaling each one
+    private static Color play(GameJournal j, Board b, Color turn, String... moves) throws Exception {
+        for (String m : moves) {
+            Board.MoveResult r = b.applyMove(m, turn);
+            turn = turn.opposite();
+            j.recordMove(m, r.wasCapture, r.gaveCheck, b, turn);
+        }
+        return turn;
+    }
+
+    @Test
+    void resumesUnfinishedGame(@TempDir Path dir) throws Exception {
+        // What: a journal replays to the same board, side and history.
+        // How: journal 4 moves, "crash" (no finish), recover and compare keys.
+        try (JournalSyncer syncer = new JournalSyncer()) {
+            Board b = Board.standardSetup();
+            GameJournal j = GameJournal.create(dir, "g1", syncer, "Ann", "Bob", b, Color.WHITE);
+            Color turn = play(j, b, Color.WHITE, "e2e4", "d7d5", "e4d5", "d8d5");
+            j.close();
+
+            List<GameJournal.Recovered> open = GameJournal.recoverUnfinished(dir);
+            assertEquals(1, open.size());
+            GameJournal.Recovered r = open.get(0);
+            assertEquals("Ann", r.whiteName);
+            assertEquals(turn, r.turn);
+            assertEquals(List.of("e2e4", "d7d5", "e4xd5", "d8xd5"), r.history);
+            assertEquals(b.positionKey(turn), r.board.positionKey(r.turn));
+        }
+    }
+
+    @Test
+    void tornTailIsDroppedAndSnapshotsBoundReplay(@TempDir Path dir) throws Exception {
+        // What: garbage after the last record is ignored; snapshots are taken on schedule.
+        // How: 40 knight shuffles (past SNAPSHOT_EVERY), append junk bytes, recover and resume.
+        try (JournalSyncer syncer = new JournalSyncer()) {
+            Board b = Board.standardSetup();
+            GameJournal j = GameJournal.create(dir, "g2", syncer, "W", "B", b, Color.WHITE);
+            String[] cycle = { "g1f3", "g8f6", "f3g1", "f6g8" };
+            List<String> moves = new ArrayList<>();
+            for (int i = 0; i < 40; i++) moves.add(cycle[i % 4]);
+            Color turn = play(j, b, Color.WHITE, moves.toArray(new String[0]));
+            j.close();
+            try (FileChannel ch = FileChannel.open(dir.resolve("g2" + GameJournal.SUFFIX), StandardOpenOption.APPEND)) {
+                ch.write(java.nio.ByteBuffer.wrap(new byte[] { 'M', 0, 11, 1, 2 }));
+            }
+
+            GameJournal.Recovered r = GameJournal.recover(dir.resolve("g2" + GameJournal.SUFFIX));
+            assertEquals(40, r.ply());
+            assertEquals(b.positionKey(turn), r.board.positionKey(r.turn));
+
+            GameJournal resumed = GameJournal.resume(dir, r, syncer);
+            resumed.finish("1/2-1/2");
+            resumed.close();
+            assertTrue(GameJournal.recoverUnfinished(dir).isEmpty());
+        }
+    }
+
+    @Test
+    void rewindCutsTheGameBack(@TempDir Path dir) throws Exception {
+        // What: after a takeback record the game resumes from the rewound ply, with later moves kept.
+        // How: 36 plies (past a snapshot), rewind to 10, play two new moves, recover.
+        try (JournalSyncer syncer = new JournalSyncer()) {
+            Board b = Board.standardSetup();
+            GameJournal j = GameJournal.create(dir, "g3", syncer, "W", "B", b, Color.WHITE);
+            String[] cycle = { "g1f3", "g8f6", "f3g1", "f6g8" };
+            List<String> moves = new ArrayList<>();
+            for (int i = 0; i < 36; i++) moves.add(cycle[i % 4]);
+            play(j, b, Color.WHITE, moves.toArray(new String[0]));
+            Board at10 = Board.standardSetup();
+            for (int i = 0; i < 10; i++) at10.applyMove(moves.get(i), i % 2 == 0 ? Color.WHITE : Color.BLACK);
+            j.rewind(10, at10, Color.BLACK);
+            assertEquals(10, j.ply());
+            Color turn = play(j, at10, Color.BLACK, "e7e5", "e2e4");
+            j.close();
+
+            GameJournal.Recovered r = GameJournal.recover(dir.resolve("g3" + GameJournal.SUFFIX));
+            assertEquals(12, r.ply());
+            assertEquals("e7e5", r.history.get(10));
+            assertEquals(turn, r.turn);
+            assertEquals(at10.positionKey(turn), r.board.positionKey(r.turn));
+        }
+    }
+
+    @Test
+    void fsyncFailureIsPermanent(@TempDir Path dir) throws Exception {
+        // What: once a batch fails, no later commit reports success.
+        // How: commit a closed channel (force throws), then a healthy one; both throw.
+        try (JournalSyncer syncer = new JournalSyncer()) {
+            FileChannel bad = FileChannel.open(dir.resolve("bad"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            bad.close();
+            assertThrows(java.io.IOException.class, () -> syncer.commit(bad));
+            try (FileChannel good = FileChannel.open(dir.resolve("good"), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                assertThrows(java.io.IOException.class, () -> syncer.commit(good));
+            }
+        }
+    }
+
+    @Test
+    void factoryNamesNeverCollide(@TempDir Path dir) throws Exception {
+        // What: games created in the same millisecond get distinct journals.
+        // How: 200 journals from one factory as fast as possible; all ids differ.
+        try (JournalSyncer syncer = new JournalSyncer()) {
+            GameJournal.Factory f = GameJournal.factory(dir, syncer);
+            java.util.Set<String> ids = new java.util.HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                try (GameJournal j = f.create("W", "B", Board.standardSetup(), Color.WHITE)) {
+                    ids.add(j.id());
+                }
+            }
+            assertEquals(200, ids.size());
+        }
+    }
+
+    @Test
+    void concurrentGamesShareFlushes(@TempDir Path dir) throws Exception {
+        // What: group commit batches fsyncs across games.
+        // How: 8 threads x 50 moves; fewer flushes than commits.
+        try (JournalSyncer syncer = new JournalSyncer()) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int id = t;
+                threads.add(new Thread(() -> {
+                    try {
+                        Board b = Board.standardSetup();
+                        GameJournal j = GameJournal.create(dir, "c" + id, syncer, "W", "B", b, Color.WHITE);
+                        String[] cycle = { "g1f3", "g8f6", "f3g1", "f6g8" };
+                        Color turn = Color.WHITE;
+                        for (int i = 0; i < 50; i++) turn = play(j, b, turn, cycle[i % 4]);
+                        j.close();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }));
+            }
+            for (Thread th : threads) th.start();
+            for (Thread th : threads) th.join();
+            assertEquals(8, GameJournal.recoverUnfinished(dir).size());
+            assertTrue(syncer.flushes() < 8 * 51, "flushes: " + syncer.flushes());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MateSolverTest {
+
+    @Test
+    void findsMateInOne() {
+        // What: Fool's Mate position, Black to move mates at once.
+        // How: solve mate-in-1 from FEN → proven with d8h4.
+        Fen.Setup s = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2");
+        MateSolver.Result r = new MateSolver().solve(s.board, s.turn, 1);
+        assertEquals(MateSolver.Status.PROVEN, r.status);
+        assertEquals("d8h4", r.move);
+    }
+
+    @Test
+    void rookMateNeedsTwoMoves() {
+        // What: K+R vs K, mate takes two moves, not one.
+        // How: mate-in-1 is disproven, mate-in-2 is proven.
+        Fen.Setup s = Fen.parse("k7/8/2K5/8/8/8/8/7R w - - 0 1");
+        assertEquals(MateSolver.Status.DISPROVEN, new MateSolver().solve(s.board, s.turn, 1).status);
+        assertEquals(MateSolver.Status.PROVEN, new MateSolver().solve(s.board, s.turn, 2).status);
+    }
+
+    @Test
+    void nodeBudgetGivesUnknown() {
+        // What: a tiny budget cannot decide the start position.
+        // How: 10-node budget on mate-in-3 from the start → UNKNOWN.
+        Board b = Board.standardSetup();
+        MateSolver.Result r = new MateSolver(10, 1024).solve(b, Color.WHITE, 3);
+        assertEquals(MateSolver.Status.UNKNOWN, r.status);
+    }
+
+    @Test
+    void provenMateAlwaysNamesItsMove() throws Exception {
+        // What: a proof whose root child was evicted from the table still reports the mating move.
+        // How: a 4-entry table on Scholar's mate as mate-in-2 (the child is evicted); the move must mate.
+        Fen.Setup s = Fen.parse("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        MateSolver.Result r = new MateSolver(200_000, 4).solve(s.board, s.turn, 2);
+        assertEquals(MateSolver.Status.PROVEN, r.status);
+        assertNotNull(r.move);
+        Board after = s.board.copy();
+        after.applyMove(r.move, s.turn);
+        if (after.hasAnyLegalMove(Color.BLACK)) {   // not mate at once: every reply allows mate in 1
+            for (String reply : after.generateMoves(Color.BLACK)) {
+                Board b = after.copy();
+                b.applyMove(reply, Color.BLACK);
+                assertEquals(MateSolver.Status.PROVEN, new MateSolver().solve(b, Color.WHITE, 1).status, reply);
+            }
+        } else {
+            assertTrue(after.isKingInCheck(Color.BLACK));
+        }
+    }
+}
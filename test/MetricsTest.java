@@ -0,0 +1,61 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @Test
+    void histogramPercentilesWithinBucketError() {
+        // What: log-linear buckets keep percentiles within ~3%.
+        // How: record 1..100000 ns once each; p50/p99 near 50000/99000, max exact.
+        Metrics.Histogram h = new Metrics.Histogram("t", "test");
+        for (long v = 1; v <= 100_000; v++) h.record(v);
+        assertEquals(100_000, h.count());
+        assertEquals(100_000, h.max());
+        assertEquals(50_000, h.percentile(50), 50_000 * 0.04);
+        assertEquals(99_000, h.percentile(99), 99_000 * 0.04);
+        assertEquals(7, h.percentile(0.0065)); // rank 7, in the exact region below 32
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws Exception {
+        // What: striped buckets and the lock-free max lose nothing under contention.
+        // How: 4 threads record 1..20000 each; count, max and median over all stripes.
+        Metrics.Histogram h = new Metrics.Histogram("t", "test");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> { for (long v = 1; v <= 20_000; v++) h.record(v); });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        assertEquals(80_000, h.count());
+        assertEquals(20_000, h.max());
+        assertEquals(20_000, h.percentile(100));
+        assertEquals(10_000, h.percentile(50), 10_000 * 0.04);
+    }
+
+    @Test
+    void recordsOnlyWhileEnabled() throws Exception {
+        // What: the runtime switch gates recording.
+        // How: count legal-move checks with recording off, then on; export shows the counter.
+        boolean was = Metrics.isEnabled();
+        try {
+            Metrics.setEnabled(false);
+            long before = Metrics.IS_LEGAL_MOVE.count();
+            Board b = Board.standardSetup();
+            b.isLegalMove(Position.fromAlgebraic("e2"), Position.fromAlgebraic("e4"), Color.WHITE);
+            assertEquals(before, Metrics.IS_LEGAL_MOVE.count());
+
+            Metrics.setEnabled(true);
+            b.applyMove("e2e4", Color.WHITE);
+            assertTrue(Metrics.IS_LEGAL_MOVE.count() > before);
+            assertTrue(Metrics.MOVES.get() >= 1);
+            String text = Metrics.prometheus();
+            assertTrue(text.contains("# TYPE chess_moves_total counter"));
+            assertTrue(text.contains("chess_board_move_seconds{quantile=\"0.99\"}"));
+        } finally {
+            Metrics.setEnabled(was);
+        }
+    }
+}
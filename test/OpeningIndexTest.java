@@ -0,0 +1,64 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class OpeningIndexTest {
+
+    private static final String PGN =
+        "[Event \"a\"]\n[Result \"1-0\"]\n\n1. e4 e5 2. Nf3 {book} Nc6 (2... d6) 3. Bb5 1-0\n\n" +
+        "[Event \"b\"]\n[Result \"0-1\"]\n\n1. e4 c5 $1 2. Nf3 d6 0-1\n\n" +
+        "[Event \"c\"]\n[Result \"1/2-1/2\"]\n\n1. d4 d5 1/2-1/2\n\n" +
+        "[Event \"d\"]\n[Result \"*\"]\n\n1. c4 *\n";
+
+    @Test
+    void parsesMovetext() {
+        // What: comments, variations and NAGs are skipped.
+        // How: parse the first game of the collection.
+        Pgn.Record r = Pgn.parse(PGN.substring(0, PGN.indexOf("[Event \"b\"]")));
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5"), r.sanMoves);
+        assertEquals("1-0", r.result);
+    }
+
+    @Test
+    void importsAndQueriesStartPosition(@TempDir Path dir) throws Exception {
+        // What: move frequencies and W/D/L for a position.
+        // How: import 4 games (one unfinished) with tiny runs; query the start and after 1.e4.
+        Path pgn = dir.resolve("games.pgn");
+        Files.writeString(pgn, PGN);
+        Path idx = dir.resolve("book.idx");
+        OpeningImporter.Stats s = new OpeningImporter(2, 40, 3).importFiles(List.of(pgn), idx);
+        assertEquals(3, s.games);
+        assertEquals(1, s.skipped);
+
+        try (OpeningIndex index = OpeningIndex.open(idx)) {
+            Board b = Board.standardSetup();
+            List<OpeningIndex.MoveStats> start = index.query(b, Color.WHITE);
+            assertEquals("e2e4", start.get(0).move);
+            assertEquals(1, start.get(0).whiteWins);
+            assertEquals(1, start.get(0).blackWins);
+            assertEquals(2, start.size());
+
+            b.applyMove("e2e4", Color.WHITE);
+            assertEquals(2, index.query(b, Color.BLACK).size());
+            assertTrue(index.query(b, Color.WHITE).isEmpty()); // side to move is part of the key
+        }
+    }
+
+    @Test
+    void deadWorkerFailsTheProducerInsteadOfHanging() {
+        // What: a full queue with a failed worker raises the failure rather than blocking forever.
+        // How: capacity-1 queue already full, one worker future that failed with an IOException.
+        java.util.concurrent.BlockingQueue<String> queue = new java.util.concurrent.ArrayBlockingQueue<>(1);
+        queue.add("game");
+        List<java.util.concurrent.Future<?>> workers =
+            List.of(java.util.concurrent.CompletableFuture.failedFuture(new java.io.IOException("disk full")));
+        java.io.IOException e = assertThrows(java.io.IOException.class,
+            () -> OpeningImporter.hand(queue, "next", workers));
+        assertEquals("disk full", e.getCause().getMessage());
+    }
+}
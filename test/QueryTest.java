@@ -0,0 +1,29 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTest {
+
+    @Test
+    void legalMovesSortedFromStart() {
+        // What: the one-shot legal query lists all 20 opening moves in sorted order.
+        // How: query the start position and check count, order and a few members.
+        String[] moves = Main.query("legal", Fen.START).split(" ");
+        assertEquals(20, moves.length);
+        for (int i = 1; i < moves.length; i++) assertTrue(moves[i - 1].compareTo(moves[i]) < 0);
+        assertEquals("a2a3", moves[0]);
+        assertTrue(Main.query("legal", Fen.START).contains("g1f3"));
+    }
+
+    @Test
+    void statusCoversEveryOutcome() {
+        // What: status distinguishes normal, check, checkmate and stalemate.
+        // How: four small positions with the side to move in each situation.
+        assertEquals("normal", Main.query("status", Fen.START));
+        assertEquals("check", Main.query("status", "4k3/8/8/8/8/8/8/4R1K1 b - - 0 1"));
+        assertEquals("checkmate", Main.query("status", "R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1"));
+        assertEquals("stalemate", Main.query("status", "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Main.query("perft", Fen.START));
+    }
+}
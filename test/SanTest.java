@@ -0,0 +1,58 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanTest {
+
+    @Test
+    void writesCommonMoves() {
+        // What: SAN for pawn, piece and castling moves.
+        // How: start position e2e4 / g1f3, then a castling-ready FEN.
+        Board b = Board.standardSetup();
+        assertEquals("e4", San.toSan(b, Color.WHITE, "e2e4"));
+        assertEquals("Nf3", San.toSan(b, Color.WHITE, "g1f3"));
+        Fen.Setup s = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals("O-O", San.toSan(s.board, s.turn, "e1g1"));
+        assertEquals("O-O-O", San.toSan(s.board, s.turn, "e1c1"));
+    }
+
+    @Test
+    void disambiguatesAndParses() {
+        // What: two rooks on the same rank need a file letter.
+        // How: rooks a1/h1 both reach d1 → "Rad1"; parse it back.
+        Fen.Setup s = Fen.parse("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        assertEquals("Rad1", San.toSan(s.board, s.turn, "a1d1"));
+        assertEquals("a1d1", San.parse(s.board, s.turn, "Rad1"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(s.board, s.turn, "Rd1"));
+    }
+
+    @Test
+    void epdLineParses() {
+        // What: EPD bm/id operations convert to coordinate moves.
+        // How: parse a one-line suite entry.
+        EpdRunner.Entry e = EpdRunner.parse("3q2k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - bm Rxd8+; id \"hang.1\";");
+        assertEquals("hang.1", e.id);
+        assertEquals("d1d8", e.bestMoves.get(0));
+    }
+
+    @Test
+    void epdSemicolonInsideQuotesIsData() {
+        // What: a ';' inside a quoted operand does not end the operation.
+        // How: an id containing "; " ahead of bm and am; all three must survive intact.
+        EpdRunner.Entry e = EpdRunner.parse("3q2k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - id \"WAC; 1\"; bm Rxd8+; am h3;");
+        assertEquals("WAC; 1", e.id);
+        assertEquals(java.util.List.of("d1d8"), e.bestMoves);
+        assertEquals(java.util.List.of("h2h3"), e.avoidMoves);
+    }
+
+    @Test
+    void epdResultsIndependentOfWorkerHistory() throws Exception {
+        // What: a position's EPD result does not depend on what its worker searched before.
+        // How: one thread runs the same entry twice at a fixed depth; both searches visit the same nodes.
+        EpdRunner.Entry e = EpdRunner.parse("3q2k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - bm Rxd8+; id \"hang.1\";");
+        EpdRunner.Report r = new EpdRunner(1, Search.Limits.depth(3)).run(java.util.List.of(e, e));
+        assertEquals(r.outcomes.get(0).nodes, r.outcomes.get(1).nodes);
+        assertEquals(2, r.solved);
+    }
+}
@@ -0,0 +1,56 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+
+    @Test
+    void findsMateInOne() {
+        // What: search spots a mate in one.
+        // How: Fool's Mate setup, depth 2 → d8h4 with a mate score.
+        Fen.Setup s = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2");
+        Search.Info info = new Search().search(s.board, s.turn, Search.Limits.depth(2));
+        assertEquals("d8h4", info.bestMove());
+        assertTrue(info.score >= Search.MATE - Search.MAX_DEPTH);
+    }
+
+    @Test
+    void seesBackRankMateAtTheHorizon() {
+        // What: a mate delivered on the last ply is scored as mate, not by material.
+        // How: depth 1, a1a8 leaves black in check with no evasion; quiescence must see it.
+        Fen.Setup s = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        Search.Info info = new Search().search(s.board, s.turn, Search.Limits.depth(1));
+        assertEquals("a1a8", info.bestMove());
+        assertTrue(info.score >= Search.MATE - Search.MAX_DEPTH);
+    }
+
+    @Test
+    void findsMateInThree() {
+        // What: deeper mates are found once the horizon detects mate.
+        // How: depth 5 on a rook-and-bishop attack; f6a6 mates in three.
+        Fen.Setup s = Fen.parse("r5rk/5p1p/5R2/4B3/8/8/7P/7K w - - 0 1");
+        Search.Info info = new Search().search(s.board, s.turn, Search.Limits.depth(5));
+        assertEquals("f6a6", info.bestMove());
+        assertTrue(info.score >= Search.MATE - Search.MAX_DEPTH);
+    }
+
+    @Test
+    void takesHangingQueen() {
+        // What: free material is captured.
+        // How: white rook on d1 can take an undefended black queen on d8.
+        Fen.Setup s = Fen.parse("3q2k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        Search.Info info = new Search().search(s.board, s.turn, Search.Limits.depth(2));
+        assertEquals("d1d8", info.bestMove());
+    }
+
+    @Test
+    void nodeLimitStillReturnsAMove() {
+        // What: an early stop still yields a legal move.
+        // How: 50-node limit from the start position.
+        Board b = Board.standardSetup();
+        Search.Info info = new Search().search(b, Color.WHITE, Search.Limits.nodes(50));
+        assertNotNull(info.bestMove());
+        assertTrue(b.generateMoves(Color.WHITE).contains(info.bestMove()));
+    }
+}
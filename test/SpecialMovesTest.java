@@ -43,4 +43,30 @@ public class SpecialMovesTest {
         assertTrue(b.get(sq("d6")) instanceof Pawn);      // white pawn now at d6
         assertEquals(Color.WHITE, b.get(sq("d6")).getColor());
     }
+
+    @Test
+    void castlingRightsLostByRookMoveAndCapture() throws Exception {
+        // What: rights live on the board and drop on rook moves and rook-square captures.
+        // How: h1 rook steps away and back (O-O gone); a black rook takes a1 (O-O-O gone).
+        Board b = Fen.parse("r3k3/8/8/8/8/8/8/R3K2R w KQq - 0 1").board;
+        b.applyMove("h1h2", Color.WHITE);
+        b.applyMove("e8d8", Color.BLACK);
+        b.applyMove("h2h1", Color.WHITE);
+        assertFalse(b.hasCastlingRight(Color.WHITE, true));
+        assertTrue(b.hasCastlingRight(Color.WHITE, false));
+        assertFalse(b.isLegalMove(sq("e1"), sq("g1"), Color.WHITE));
+
+        b.applyMove("a8a1", Color.BLACK);
+        assertFalse(b.hasCastlingRight(Color.WHITE, false));
+    }
+
+    @Test
+    void copiesSharePieceInstances() {
+        // What: pieces are flyweights, so copies allocate none.
+        // How: every square of a copy holds the very same object as the original.
+        Board b = Board.standardSetup();
+        Board c = b.copy();
+        for (int x = 0; x < 8; x++) for (int y = 0; y < 8; y++) assertSame(b.get(x, y), c.get(x, y));
+        assertSame(Piece.of(PieceType.PAWN, Color.WHITE), b.get(0, 1));
+    }
 }
@@ -0,0 +1,53 @@
+package src;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class TournamentTest {
+
+    @Test
+    void sprtAcceptsClearWinnerAndLoser() {
+        // What: lopsided results end the test early.
+        // How: 80/10/10 accepts H1, 10/10/80 accepts H0, 3/2/3 keeps going.
+        Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+        assertEquals(Sprt.Verdict.ACCEPT_H1, sprt.verdict(80, 10, 10));
+        assertEquals(Sprt.Verdict.ACCEPT_H0, sprt.verdict(10, 10, 80));
+        assertEquals(Sprt.Verdict.CONTINUE, sprt.verdict(3, 2, 3));
+        assertEquals(0.0, Sprt.elo(5, 0, 5), 1e-9);
+        assertTrue(Sprt.elo(75, 0, 25) > 150);
+    }
+
+    @Test
+    void playsGamesAndStreamsPgn(@TempDir Path dir) throws Exception {
+        // What: a short concurrent match finishes and writes one PGN per game.
+        // How: two depth-1 engines, K+Q vs K opening, 2 games on 2 threads.
+        Tournament t = new Tournament(Tournament.Player.parse("A", "depth:1"), Tournament.Player.parse("B", "depth:1"),
+            new Tournament.Adjudication(20, 1000, 3), new Sprt(0, 10, 0.05, 0.05), 2);
+        Path pgn = dir.resolve("out.pgn");
+        Tournament.Standings s = t.run(List.of("4k3/8/8/8/8/8/8/3QK3 w - -"), 2, pgn, null);
+        assertEquals(2, s.games());
+        String text = Files.readString(pgn);
+        assertEquals(2, text.split("\\[Event ", -1).length - 1);
+        assertTrue(text.contains("[FEN \"4k3/8/8/8/8/8/8/3QK3 w - - 0 1\"]"));
+    }
+
+    @Test
+    void failedGameFailsTheMatch(@TempDir Path dir) {
+        // What: an exception in one game surfaces from run() instead of shrinking the standings.
+        // How: a Tournament whose second game throws; run() rethrows that exception.
+        Tournament t = new Tournament(Tournament.Player.parse("A", "depth:1"), Tournament.Player.parse("B", "depth:1"),
+                new Tournament.Adjudication(20, 1000, 3), new Sprt(0, 10, 0.05, 0.05), 2) {
+            @Override String playGame(Player white, Player black, String fen, int round, boolean aWhite) {
+                if (round == 2) throw new IllegalStateException("engine crashed");
+                return super.playGame(white, black, fen, round, aWhite);
+            }
+        };
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> t.run(List.of("4k3/8/8/8/8/8/8/3QK3 w - -"), 4, dir.resolve("out.pgn"), null));
+        assertEquals("engine crashed", e.getMessage());
+    }
+}